@@ -0,0 +1,28 @@
+package com.deadshotmdf.spigot_abstract_GUIS.Benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+//Main class of benchmarks.jar. Takes the usual JMH arguments (a benchmark regex, -p items=1000, -f, -wi, ...)
+//and unless -rf/-rff say otherwise writes the results as JSON to jmh-result.json, ready to be compared between two versions
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (!commandLine.getResultFormat().hasValue())
+            options.resultFormat(ResultFormatType.JSON);
+
+        if (!commandLine.getResult().hasValue())
+            options.result(DEFAULT_RESULT);
+
+        new Runner(options.build()).run();
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.deadshotmdf.spigot_abstract_GUIS.Benchmarks;
+
+import com.deadshotmdf.spigot_abstract_GUIS.GUIUtils;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.Implementation.Generic.Label;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.RenderCache;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.io.File;
+import java.util.*;
+import java.util.logging.Level;
+
+//What every benchmark runs against: a MockBukkit server, a plugin, the registered buttons and a GuiManager set up like S_A_GUIS does it.
+//Nothing is started that would run on its own during a measurement, no watcher, eviction, leak sweep or metrics file
+public class BenchmarkServer {
+
+    private final ServerMock server;
+    private final JavaPlugin plugin;
+    private final GuiManager guiManager;
+    private final BenchmarkManager manager;
+
+    private BenchmarkServer() {
+        this.server = MockBukkit.mock();
+        this.plugin = MockBukkit.createMockPlugin();
+        //buildGUI logs every template it loads, that's console output and not what's being measured
+        this.plugin.getLogger().setLevel(Level.WARNING);
+
+        GUIUtils.createButtons();
+        RenderCache.setMaxSize(2048);
+
+        this.guiManager = new GuiManager(plugin);
+        this.guiManager.getClickLimiter().load(null);
+        this.guiManager.getScheduler().setCheckConfinement(false);
+        this.guiManager.getMetrics().setEnabled(false);
+        this.manager = new BenchmarkManager(guiManager, plugin, new File(plugin.getDataFolder(), "guis/"));
+    }
+
+    public static BenchmarkServer start() {
+        if (MockBukkit.isMocked())
+            MockBukkit.unmock();
+
+        return new BenchmarkServer();
+    }
+
+    public void stop() {
+        guiManager.shutdown();
+        RenderCache.clear();
+        MockBukkit.unmock();
+    }
+
+    public ServerMock getServer() {
+        return server;
+    }
+
+    public JavaPlugin getPlugin() {
+        return plugin;
+    }
+
+    public GuiManager getGuiManager() {
+        return guiManager;
+    }
+
+    public BenchmarkManager getManager() {
+        return manager;
+    }
+
+    public PlayerMock addPlayer() {
+        return server.addPlayer();
+    }
+
+    public static ItemStack item(Material material, String name, String... lore) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+
+        meta.setDisplayName(GUIUtils.color(name));
+
+        if (lore.length > 0)
+            meta.setLore(Arrays.stream(lore).map(GUIUtils::color).toList());
+
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    //A label with placeholders in its name and in every other lore line, the kind of button a shop or profile page is made of
+    public Label label(int index) {
+        return new Label(item(Material.PAPER, "&e{player}'s item #" + index, "&7Balance: &a{balance}", "&7Static line", "&7Rank: &b{rank}", "&8#" + index), manager, guiManager, null, null);
+    }
+
+    //Every slot of a size slot page filled with labels
+    public Map<Integer, Map<Integer, GuiElement>> fullPage(int size) {
+        Map<Integer, GuiElement> elements = new LinkedHashMap<>();
+
+        for (int slot = 0; slot < size; slot++)
+            elements.put(slot, label(slot));
+
+        Map<Integer, Map<Integer, GuiElement>> pages = new LinkedHashMap<>();
+        pages.put(0, elements);
+        return pages;
+    }
+
+    public static final class BenchmarkManager extends AbstractGUIManager {
+
+        public BenchmarkManager(GuiManager guiManager, JavaPlugin plugin, File basePath) {
+            super(guiManager, plugin, basePath, new File(plugin.getDataFolder(), "data/benchmark.yml"));
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.deadshotmdf.spigot_abstract_GUIS.Benchmarks;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.Implementation.Generic.Label;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.RenderCache;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+//AbstractButton.getItemStackClone, the call behind every slot a GUI renders.
+//renderCache off is what every render costs without the RenderCache, on with the same replacements is the hit path,
+//changing replacements misses every time like a counter or a balance that moves on each refresh
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ButtonRenderBenchmark {
+
+    private static final String[] PLACEHOLDERS = {"{player}", "{balance}", "{rank}"};
+
+    @Param({"true", "false"})
+    public boolean renderCache;
+
+    private BenchmarkServer server;
+    private Label label;
+    private String[] replacements;
+    private long counter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        server = BenchmarkServer.start();
+        label = server.label(0);
+        replacements = new String[]{"Steve", "1,250.00", "VIP"};
+        RenderCache.setMaxSize(renderCache ? 2048 : 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public ItemStack withoutPlaceholders() {
+        return label.getItemStackClone();
+    }
+
+    @Benchmark
+    public ItemStack samePlaceholders() {
+        return label.getItemStackClone(PLACEHOLDERS, replacements);
+    }
+
+    @Benchmark
+    public ItemStack changingPlaceholders() {
+        return label.getItemStackClone(PLACEHOLDERS, "Steve", Long.toString(counter++), "VIP");
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.deadshotmdf.spigot_abstract_GUIS.Benchmarks;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.PerPlayerGUI;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Listeners.GUIListener;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//GUIListener.onClick from the event to the button: holder lookup, click limiter, ClickContext, the GUI's handleClick and the button's onClick.
+//The listener is called directly, what Bukkit's event bus adds on top is the same for every plugin and not measured.
+//With the limiter on its limits are high enough that no click is ever dropped, so every click pays for the whole path
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClickDispatchBenchmark {
+
+    private static final int SIZE = 54;
+    private static final int BUTTON_SLOT = 13;
+    private static final int EMPTY_SLOT = 40;
+
+    @Param({"true", "false"})
+    public boolean clickLimiter;
+
+    @Param({"true", "false"})
+    public boolean metrics;
+
+    private BenchmarkServer server;
+    private GUIListener listener;
+    private InventoryClickEvent buttonClick;
+    private InventoryClickEvent emptyClick;
+    private InventoryClickEvent foreignClick;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        server = BenchmarkServer.start();
+        listener = new GUIListener(server.getGuiManager());
+        server.getGuiManager().getMetrics().setEnabled(metrics);
+
+        if (clickLimiter) {
+            YamlConfiguration limits = new YamlConfiguration();
+            limits.set("enabled", true);
+            limits.set("player.burst", 1e12);
+            limits.set("player.per_second", 1e12);
+            limits.set("button.burst", 1e12);
+            limits.set("button.per_second", 1e12);
+            server.getGuiManager().getClickLimiter().load(limits);
+        }
+
+        Map<Integer, Map<Integer, GuiElement>> pages = server.fullPage(SIZE);
+        pages.get(0).remove(EMPTY_SLOT);
+
+        PlayerMock player = server.addPlayer();
+        PerPlayerGUI<BenchmarkServer.BenchmarkManager> gui = new PerPlayerGUI<>(server.getGuiManager(), server.getManager(), "Clicks", SIZE, pages, player.getUniqueId(), new HashMap<>());
+        gui.setTemplate("clicks", 1);
+        gui.open(player, 0, true);
+
+        buttonClick = click(player, BUTTON_SLOT);
+        emptyClick = click(player, EMPTY_SLOT);
+
+        //A chest that isn't a GUI, the listener has to let it go as early as it can
+        PlayerMock other = server.addPlayer();
+        other.openInventory(Bukkit.createInventory(null, SIZE, "Chest"));
+        foreignClick = click(other, BUTTON_SLOT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public boolean button() {
+        listener.onClick(buttonClick);
+        return buttonClick.isCancelled();
+    }
+
+    @Benchmark
+    public boolean emptySlot() {
+        listener.onClick(emptyClick);
+        return emptyClick.isCancelled();
+    }
+
+    @Benchmark
+    public boolean foreignInventory() {
+        listener.onClick(foreignClick);
+        return foreignClick.isCancelled();
+    }
+
+    private static InventoryClickEvent click(PlayerMock player, int slot) {
+        return new InventoryClickEvent(player.getOpenInventory(), InventoryType.SlotType.CONTAINER, slot, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.deadshotmdf.spigot_abstract_GUIS.Benchmarks;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.PerPlayerPagedGUI;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+//PerPlayerPagedGUI.refreshInventory laying items out over as many pages as they need, the bottom row is the fixed template.
+//The items are built once in setup, what's measured is the paging and the rendering of the open page, not creating the buttons
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PagedRefreshBenchmark {
+
+    private static final int SIZE = 54;
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int items;
+
+    private BenchmarkServer server;
+    private ItemsGUI gui;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        server = BenchmarkServer.start();
+
+        List<GuiElement> elements = new ArrayList<>(items);
+        for (int i = 0; i < items; i++)
+            elements.add(server.label(i));
+
+        Map<Integer, GuiElement> template = new LinkedHashMap<>();
+        for (int slot = SIZE - 9; slot < SIZE; slot++)
+            template.put(slot, server.label(-slot));
+
+        Map<Integer, Map<Integer, GuiElement>> pages = new LinkedHashMap<>();
+        pages.put(0, template);
+
+        PlayerMock player = server.addPlayer();
+        gui = new ItemsGUI(server.getGuiManager(), server.getManager(), pages, player.getUniqueId(), elements);
+        gui.refreshInventory();
+        gui.open(player, 0, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public int refresh() {
+        gui.refreshInventory();
+        return gui.getPageCount();
+    }
+
+    public static class ItemsGUI extends PerPlayerPagedGUI<BenchmarkServer.BenchmarkManager, GuiElement> {
+
+        private final List<GuiElement> items;
+
+        public ItemsGUI(GuiManager guiManager, BenchmarkServer.BenchmarkManager manager, Map<Integer, Map<Integer, GuiElement>> pageElements, UUID viewer, List<GuiElement> items) {
+            super(guiManager, manager, "Items", SIZE, pageElements, viewer, new HashMap<>());
+            this.items = items;
+        }
+
+        @Override
+        protected List<GuiElement> getItemsToDisplay() {
+            return items;
+        }
+
+        @Override
+        protected GuiElement createGuiElement(GuiElement item) {
+            return item;
+        }
+    }
+
+}
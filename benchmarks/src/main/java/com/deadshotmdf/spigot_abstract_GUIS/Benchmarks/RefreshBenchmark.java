@@ -0,0 +1,76 @@
+package com.deadshotmdf.spigot_abstract_GUIS.Benchmarks;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.RenderCache;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.PerPlayerGUI;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+//AbstractGUI.refreshInventory on a per player GUI its player has open, every slot a label with placeholders.
+//unchanged renders the same items again, so every slot write is skipped by the fingerprints.
+//changed moves the balance before each refresh, every slot is rendered and written
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RefreshBenchmark {
+
+    @Param({"27", "54"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean renderCache;
+
+    private BenchmarkServer server;
+    private RefreshGUI gui;
+    private long balance;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        server = BenchmarkServer.start();
+        RenderCache.setMaxSize(renderCache ? 2048 : 0);
+
+        PlayerMock player = server.addPlayer();
+        gui = new RefreshGUI(server.getGuiManager(), server.getManager(), size, server.fullPage(size), player.getUniqueId());
+        gui.open(player, 0, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public void unchanged() {
+        gui.refreshInventory();
+    }
+
+    @Benchmark
+    public void changed() {
+        gui.setBalance(balance++);
+        gui.refreshInventory();
+    }
+
+    //Renders its labels with the player's name, balance and rank like a profile or shop page would
+    public static class RefreshGUI extends PerPlayerGUI<BenchmarkServer.BenchmarkManager> {
+
+        public RefreshGUI(GuiManager guiManager, BenchmarkServer.BenchmarkManager manager, int size, Map<Integer, Map<Integer, GuiElement>> pageElements, UUID viewer) {
+            super(guiManager, manager, "Refresh", size, pageElements, viewer, new HashMap<>());
+            this.placeholders = new String[]{"{player}", "{balance}", "{rank}"};
+            this.replacements = new String[]{"Steve", "0", "VIP"};
+        }
+
+        public void setBalance(long balance) {
+            this.replacements = new String[]{"Steve", Long.toString(balance), "VIP"};
+        }
+    }
+
+}
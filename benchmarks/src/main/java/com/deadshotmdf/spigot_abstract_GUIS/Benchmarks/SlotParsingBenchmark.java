@@ -0,0 +1,50 @@
+package com.deadshotmdf.spigot_abstract_GUIS.Benchmarks;
+
+import com.deadshotmdf.spigot_abstract_GUIS.GUIUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+//GUIUtils.getSlots on the slot strings templates use, once for every element of every file on each load.
+//Needs no server, it's plain string parsing
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SlotParsingBenchmark {
+
+    @Param({"single", "range", "border", "list", "invalid"})
+    public String shape;
+
+    private String slots;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        slots = switch (shape) {
+            case "single" -> "13";
+            case "range" -> "0-53";
+            //The frame of a double chest, how most fillers are written
+            case "border" -> "0-8,9,17,18,26,27,35,36,44,45-53";
+            case "list" -> listOf(54);
+            default -> "0-8,a,12-,-3,x-y,99";
+        };
+    }
+
+    @Benchmark
+    public Set<Integer> getSlots() {
+        return GUIUtils.getSlots(slots);
+    }
+
+    private static String listOf(int count) {
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < count; i++)
+            builder.append(i > 0 ? "," : "").append(i);
+
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.deadshotmdf.spigot_abstract_GUIS.Benchmarks;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//AbstractGUIManager.loadGUIsRecursive over a generated catalog of N template files spread over a few folders, like a server with a large menu setup.
+//Every file is a double chest with a filler frame, two pages of items with colored names and lore and links to other files.
+//templateCache false deletes the TemplateCache snapshots before every load so each file goes through the YAML parser, true is a restart with nothing changed
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TemplateLoadBenchmark {
+
+    private static final int FOLDERS = 8;
+
+    @Param({"10", "100", "1000"})
+    public int files;
+
+    @Param({"true", "false"})
+    public boolean templateCache;
+
+    private BenchmarkServer server;
+    private AbstractGUIManager manager;
+    private List<File> catalog;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = BenchmarkServer.start();
+        manager = server.getManager();
+
+        for (int i = 0; i < files; i++) {
+            File file = new File(manager.getBasePath(), "folder_" + i % FOLDERS + "/gui_" + i + ".yml");
+            file.getParentFile().mkdirs();
+            Files.writeString(file.toPath(), template(i), StandardCharsets.UTF_8);
+        }
+
+        catalog = manager.collectGUIFiles();
+
+        //Fills the TemplateCache once, the cached runs start warm
+        manager.loadGUIsRecursive();
+    }
+
+    @Setup(Level.Invocation)
+    public void invalidate() {
+        if (templateCache)
+            return;
+
+        for (File file : catalog)
+            server.getGuiManager().getTemplateCache().invalidate(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public void loadGUIsRecursive() {
+        manager.loadGUIsRecursive();
+    }
+
+    private String template(int index) {
+        StringBuilder yaml = new StringBuilder(4096)
+                .append("gui:\n")
+                .append("  title: '&8Menu &7#").append(index).append("'\n")
+                .append("  size: 54\n")
+                .append("  per_player: ").append(index % 2 == 0).append('\n')
+                .append("  elements:\n")
+                .append("    frame:\n")
+                .append("      action: FILLER\n")
+                .append("      slots: '0-8,9,17,18,26,27,35,36,44,45-53'\n")
+                .append("      material: BLACK_STAINED_GLASS_PANE\n")
+                .append("      name: ' '\n");
+
+        for (int page = 0; page < 2; page++)
+            for (int slot = 10; slot <= 16; slot++) {
+                yaml.append("    item_").append(page).append('_').append(slot).append(":\n")
+                        .append("      action: LABEL\n")
+                        .append("      slot: ").append(slot).append('\n')
+                        .append("      page: ").append(page).append('\n')
+                        .append("      material: ").append(slot % 2 == 0 ? "DIAMOND" : "EMERALD").append('\n')
+                        .append("      name: '&#55FF55Item ").append(slot).append(" &7on page ").append(page + 1).append("'\n")
+                        .append("      lore:\n")
+                        .append("        - '&7Price: &a{price}'\n")
+                        .append("        - '&7Stock: &e{stock}'\n")
+                        .append("        - ''\n")
+                        .append("        - '&eClick to buy'\n");
+            }
+
+        for (int link = 1; link <= 3; link++)
+            yaml.append("    link_").append(link).append(":\n")
+                    .append("      action: OPEN_GUI gui_").append((index + link) % files).append('\n')
+                    .append("      slot: ").append(28 + link).append('\n')
+                    .append("      material: BOOK\n")
+                    .append("      name: '&bGo to menu #").append((index + link) % files).append("'\n");
+
+        return yaml.toString();
+    }
+
+}
@@ -1,16 +1,16 @@
 package com.deadshotmdf.spigot_abstract_GUIS.ExampleShop.Buttons.Implementation;
 
 import com.deadshotmdf.spigot_abstract_GUIS.ExampleShop.Managers.ShopManager;
+import com.deadshotmdf.spigot_abstract_GUIS.ExampleShop.Objects.GenericShopTransactionGUI;
 import com.deadshotmdf.spigot_abstract_GUIS.GUIUtils;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.AbstractButton;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.ButtonAction;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.ButtonIdentifier;
 import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
-import org.bukkit.Location;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.ClickContext;
 import org.bukkit.Material;
-import org.bukkit.World;
 import org.bukkit.entity.Player;
-import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
 import org.jetbrains.annotations.NotNull;
@@ -25,47 +25,50 @@ public class GenericShopConfirmTransaction extends AbstractButton<ShopManager> {
     }
 
     @Override
-    public void onClick(InventoryClickEvent ev, GUI gui, Map<String, Object> GUIArgs, Map<String, Object> extraArgs) {
-        boolean isBuy = GUIUtils.retrieveObject(GUIArgs.get("buying"), Boolean.class, false);
-        int amount = GUIUtils.retrieveObject(extraArgs.get("amount"), Integer.class, 0);
-        double value = GUIUtils.retrieveObject(extraArgs.get("value"), Double.class, 0.0);
-        Material material = GUIUtils.retrieveObject(GUIArgs.get("material"), Material.class, Material.DIRT);
-        Player player = (Player) ev.getWhoClicked();
-
-        if(gui.getBackGUI() != null)
-            guiManager.commenceOpen(player, gui.getBackGUI(), null, null);
-
-        if(amount == 0 || value <= 0.0)
+    public void onClick(ClickContext context) {
+        GUI gui = context.getGui();
+        boolean isBuy = gui instanceof GenericShopTransactionGUI shop ? shop.isBuy() : GUIUtils.retrieveObject(context.getGuiArgs().get("buying"), Boolean.class, false);
+        int amount = context.get(ClickContext.AMOUNT, 0);
+        double value = context.get(ClickContext.VALUE, 0.0);
+        Material material = gui instanceof GenericShopTransactionGUI shop ? shop.getMaterial() : GUIUtils.retrieveObject(context.getGuiArgs().get("material"), Material.class, Material.DIRT);
+        Player player = (Player) context.getPlayer();
+
+        //The confirm GUI stays open while the payment runs, further clicks would take the items again and queue a second payment
+        if(guiManager.getActionPipeline().isBusy(player.getUniqueId()))
             return;
 
-        if(!isBuy)
-            amount = searchAndRemove(amount, player.getInventory(), material);
-
-        double money = amount * value;
-
-        //Imagine you have vault here
-//        Economy economy = vaultEcoInstance
-//
-//        if(isBuy && economy.getBalance(player) < money){
-//            player.sendMessage(getNotEnoughFundsToBuyMessage(material, amount, money, economy.getBalance(player)));
-//            return;
-//        }
-//
-//        if(isBuy){
-//            economy.withdrawPlayer(player, money);
-//            giveItems(amount, material, player);
-//            player.sendMessage(getItemBoughtMessage(material, amount, money));
-//        }
-//        else{
-//            economy.depositPlayer(player, money);
-//            player.sendMessage(getItemSoldMessage(material, amount, money));
-//        }
-    }
+        if(amount == 0 || value <= 0.0){
+            guiManager.navigateBack(player);
+            return;
+        }
 
-    private void giveItems(int amount, Material material, Player player){
-        World world = player.getWorld();
-        Location location = player.getLocation();
-        player.getInventory().addItem(new ItemStack(material, amount)).values().forEach(item -> world.dropItemNaturally(location, item));
+        //Items are taken on the main thread before anything else, the economy call then runs off it and the confirm button shows as busy meanwhile
+        int removed = isBuy ? amount : searchAndRemove(amount, player.getInventory(), material);
+
+        //No timeout and no cancel on close, a payment that's given up on while it still goes through would refund items that were paid for
+        runAsync(context, ButtonAction.async(() -> {
+            //Imagine you have vault here, withdrawing or depositing removed * value. A database backed economy can block this thread as long as it needs
+            return true;
+        }).then((online, success) -> {
+            //A sell the economy refused gives the taken items back
+            if(!isBuy && !success)
+                correspondentManager.giveItems(online, material, removed);
+
+            guiManager.navigateBack(online);
+        }).onError((online, error) -> {
+            //The sold items were already taken, give them back if the payment didn't go through
+            if(!isBuy)
+                correspondentManager.giveItems(online, material, removed);
+
+            guiManager.navigateBack(online);
+        }).thenOffline((uuid, success) -> {
+            //The player quit while the payment ran, what a refused sell owes them is handed back when they join again
+            if(!isBuy && !success)
+                correspondentManager.addRefund(uuid, material, removed);
+        }).onErrorOffline((uuid, error) -> {
+            if(!isBuy)
+                correspondentManager.addRefund(uuid, material, removed);
+        }).timeout(0).cancelOnClose(false));
     }
 
     private int searchAndRemove(int amount, PlayerInventory inventory, Material material) {
@@ -44,8 +44,10 @@ public class GenericShopIntentButton extends AbstractButton<ShopManager> {
         if(lore.contains(placeholders[1]) && sell_value <= 0.000)
             lore.remove(placeholders[1]);
 
+        compileTemplates();
+
         String[] replacement = {buy_value > 0.000 ? Temp.getBuyLore(buy_value) : "", sell_value > 0.000 ? Temp.getSellLore(sell_value) : ""};
-        this.item = getItemStackClone(placeholders, replacement);
+        this.item = getItemStackClone(this.item, placeholders, replacement);
     }
 
     @Override
@@ -61,7 +63,7 @@ public class GenericShopIntentButton extends AbstractButton<ShopManager> {
         ItemMeta meta = item.getItemMeta();
         boolean hasItemMeta = meta != null;
 
-        guiManager.openGui(event.getWhoClicked(), purchaseScreen, gui, Map.of(
+        guiManager.navigateTo(event.getWhoClicked(), purchaseScreen, Map.of(
                 "buy_value", buy_value,
                 "sell_value", sell_value,
                 "max_buy", max_buy,
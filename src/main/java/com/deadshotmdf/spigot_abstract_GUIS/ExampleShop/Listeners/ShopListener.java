@@ -0,0 +1,23 @@
+package com.deadshotmdf.spigot_abstract_GUIS.ExampleShop.Listeners;
+
+import com.deadshotmdf.spigot_abstract_GUIS.ExampleShop.Managers.ShopManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+public class ShopListener implements Listener {
+
+    private final ShopManager shopManager;
+
+    public ShopListener(ShopManager shopManager) {
+        this.shopManager = shopManager;
+    }
+
+    //Items of sells that failed while the player was offline
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent ev) {
+        shopManager.giveRefunds(ev.getPlayer());
+    }
+
+}
@@ -6,54 +6,95 @@ import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
 import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
-import java.util.EnumMap;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ShopManager extends AbstractGUIManager {
 
-    private final EnumMap<Material, Double> prices;
+    //Filled by the loader threads while files are parsed, per template. Only touched while holding this manager's lock (enhanceGuiElement always is)
+    private Map<String, EnumMap<Material, Double>> parsedPrices;
+    //The prices each committed template brought, main thread only. Lets a hot reload drop the prices of the templates it replaced or removed
+    private Map<String, EnumMap<Material, Double>> templatePrices;
+    //What sells read. Never changed in place, replaced as a whole on the main thread once a load is committed,
+    //so a sell during a reload still sees every old price
+    private volatile Map<Material, Double> prices;
+    //Sold items of payments that failed after their player quit, handed back when they join again. Saved to data/shop.yml over restarts
+    private final Map<UUID, Map<Material, Integer>> refunds;
     private GUI main_shop;
 
     public ShopManager(GuiManager guiManager, JavaPlugin plugin) {
         super(guiManager, plugin, new File(plugin.getDataFolder(), "guis/shop/"), new File(plugin.getDataFolder(), "data/shop.yml"));
-        this.prices = new EnumMap<>(Material.class);
+        this.parsedPrices = new HashMap<>();
+        this.templatePrices = new HashMap<>();
+        this.prices = Map.of();
+        this.refunds = new ConcurrentHashMap<>();
+        loadInformation();
     }
 
     public Double getMaterialPrice(Material material) {
         return prices.get(material);
     }
 
-    public EnumMap<Material, Double> getPrices() {
+    //Read only
+    public Map<Material, Double> getPrices() {
         return prices;
     }
 
+    //Any thread, the global one for payments that finished after the player quit
+    public void addRefund(UUID uuid, Material material, int amount){
+        if(amount > 0)
+            refunds.computeIfAbsent(uuid, k -> new ConcurrentHashMap<>()).merge(material, amount, Integer::sum);
+    }
+
+    //Call from the player's thread
+    public void giveRefunds(Player player){
+        Map<Material, Integer> owed = refunds.remove(player.getUniqueId());
+
+        if(owed != null)
+            owed.forEach((material, amount) -> giveItems(player, material, amount));
+    }
+
+    //What doesn't fit in the inventory is dropped at the player's feet
+    public void giveItems(Player player, Material material, int amount){
+        World world = player.getWorld();
+        Location location = player.getLocation();
+        player.getInventory().addItem(new ItemStack(material, amount)).values().forEach(item -> world.dropItemNaturally(location, item));
+    }
+
     public void openShop(Player player){
+        if(guiManager.isLoading()){
+            guiManager.queueOpen(player, this::openShop);
+            return;
+        }
+
         if(main_shop == null){
             player.sendMessage("no main shop present");
             return;
         }
 
-        guiManager.commenceOpen(player, main_shop, null, null);
+        guiManager.commenceOpen(player, main_shop, null);
     }
 
     //Here we override the enhanceGuiElement to retrieve the price of the items
     @Override
-    protected GuiElement enhanceGuiElement(String specialType, ItemStack item, Map<String, Object> extraValues, GuiElement element, String action, String[] args) {
+    protected GuiElement enhanceGuiElement(String template, String specialType, ItemStack item, Map<String, Object> extraValues, GuiElement element, String action, String[] args) {
         if(item == null)
             return element;
 
         double sell = GUIUtils.getDoubleOrDefault(extraValues.get("sell_value"), 0.0);
 
         if(sell > 0.000)
-            prices.put(item.getType(), sell);
+            parsedPrices.computeIfAbsent(template, k -> new EnumMap<>(Material.class)).put(item.getType(), sell);
 
         return element;
     }
@@ -61,7 +102,7 @@ public class ShopManager extends AbstractGUIManager {
     @Override
     protected GUI specifyGUI(boolean perPlayer, GuiManager guiManager, String title, int size, Map<Integer, Map<Integer, GuiElement>> mergedPages, String type){
         return switch (type != null ? type.toUpperCase() : "null") {
-            case "GENERIC_CONFIRMATION" -> new GenericShopTransactionGUI(guiManager, this, title, size, mergedPages, null, null, new HashMap<>());
+            case "GENERIC_CONFIRMATION" -> new GenericShopTransactionGUI(guiManager, this, title, size, mergedPages, null, new HashMap<>());
             case "MAIN_SHOP" -> main_shop = super.specifyGUI(perPlayer, guiManager, title, size, mergedPages, type);
             default -> super.specifyGUI(perPlayer, guiManager, title, size, mergedPages, type);
         };
@@ -98,8 +139,66 @@ public class ShopManager extends AbstractGUIManager {
     }
 
     @Override
-    public void onReload(){
-        this.prices.clear();
+    public void loadInformation(){
+        ConfigurationSection section = config.getConfigurationSection("refunds");
+
+        if(section == null)
+            return;
+
+        for(String uuid : section.getKeys(false)){
+            ConfigurationSection owed = section.getConfigurationSection(uuid);
+
+            if(owed == null)
+                continue;
+
+            for(String material : owed.getKeys(false)){
+                Material type = Material.getMaterial(material);
+
+                try{
+                    if(type != null)
+                        addRefund(UUID.fromString(uuid), type, owed.getInt(material));
+                }
+                catch (IllegalArgumentException ignored){}
+            }
+        }
+    }
+
+    @Override
+    public void saveInformation(){
+        config.set("refunds", null);
+        refunds.forEach((uuid, owed) -> owed.forEach((material, amount) -> config.set("refunds." + uuid + "." + material.name(), amount)));
+        saveC();
+    }
+
+    @Override
+    public synchronized void onReload(){
+        this.parsedPrices = new HashMap<>();
+    }
+
+    //A full reload replaces every price. A hot reload drops the prices of the templates it replaced or removed, then adds the ones it parsed
+    @Override
+    public void onTemplatesCommitted(Set<String> loaded, Set<String> removed, boolean full){
+        Map<String, EnumMap<Material, Double>> parsed;
+
+        synchronized(this){
+            parsed = parsedPrices;
+            parsedPrices = new HashMap<>();
+        }
+
+        if(full)
+            templatePrices.clear();
+
+        templatePrices.keySet().removeAll(loaded);
+        templatePrices.keySet().removeAll(removed);
+
+        parsed.forEach((template, templateParsed) -> {
+            if(loaded.contains(template))
+                templatePrices.put(template, templateParsed);
+        });
+
+        EnumMap<Material, Double> next = new EnumMap<>(Material.class);
+        templatePrices.values().forEach(next::putAll);
+        this.prices = Collections.unmodifiableMap(next);
     }
 
 }
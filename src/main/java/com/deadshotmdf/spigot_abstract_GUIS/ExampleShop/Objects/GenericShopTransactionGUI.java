@@ -6,13 +6,13 @@ import com.deadshotmdf.spigot_abstract_GUIS.GUIUtils;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.Implementation.Generic.Filler;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.Implementation.Generic.ReplaceableButton;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.RenderCache;
 import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
 import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.PerPlayerGUI;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.ClickContext;
 import com.deadshotmdf.spigot_abstract_GUIS.Temp;
 import org.bukkit.Material;
-import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
@@ -22,6 +22,8 @@ import java.util.UUID;
 public class GenericShopTransactionGUI extends PerPlayerGUI<ShopManager> {
 
     private final static String[] placeholders = {"{genericShopDisplayItemShowAmount}", "{valueLore}"};
+    //What the display item's render is cached under, everything it depends on besides the template button
+    private final static String[] displayKey = {"{material}", "{itemName}", "{maxStack}", "{stack}", "{genericShopDisplayItemShowAmount}", "{valueLore}"};
 
     private final ItemStack item;
     private final boolean isBuy;
@@ -31,10 +33,14 @@ public class GenericShopTransactionGUI extends PerPlayerGUI<ShopManager> {
     private final double sell_value;
     private final int max_buy;
     private final int max_sell;
+    private final ItemStack fill;
     private int amount;
+    //Built once per template button, the amount comes from the item it's rendered onto
+    private ReplaceableButton displayButton;
+    private ReplaceableButton displayTemplate;
 
-    public GenericShopTransactionGUI(GuiManager guiManager, ShopManager correspondentManager, String title, int size, Map<Integer, Map<Integer, GuiElement>> pageElements, GUI backGUI, UUID viewer, Map<String, Object> args) {
-        super(guiManager, correspondentManager, title, size, pageElements, backGUI, viewer, args);
+    public GenericShopTransactionGUI(GuiManager guiManager, ShopManager correspondentManager, String title, int size, Map<Integer, Map<Integer, GuiElement>> pageElements, UUID viewer, Map<String, Object> args) {
+        super(guiManager, correspondentManager, title, size, pageElements, viewer, args);
         this.isBuy = GUIUtils.retrieveObject(args.get("buying"), Boolean.class, false);
         this.material = GUIUtils.retrieveObject(args.get("material"), Material.class, Material.GLASS);
         this.item_name = GUIUtils.retrieveObject(args.get("item_name"), String.class, "ERROR");
@@ -52,54 +58,85 @@ public class GenericShopTransactionGUI extends PerPlayerGUI<ShopManager> {
             meta.setMaxStackSize(Math.min(maxStack, 99));
 
         this.item.setItemMeta(meta);
-        try{this.refreshInventory();}
-        catch (Throwable ignored){}
+        this.fill = new ItemStack(isBuy ? Material.GREEN_STAINED_GLASS_PANE : Material.RED_STAINED_GLASS_PANE);
     }
 
     public void changeAmount(int amount, boolean add){
         this.amount = Math.min(isBuy ? max_buy : max_sell, this.amount + (add ? amount : -amount));
         this.amount = Math.max(1, this.amount);
         this.item.setAmount(this.amount < 100 ? this.amount : 99);
-        refreshInventory();
+        requestRefresh();
+    }
+
+    public boolean isBuy(){
+        return isBuy;
+    }
+
+    public Material getMaterial(){
+        return material;
     }
 
     @Override
-    public void handleClick(InventoryClickEvent ev, Map<String, Object> args) {
-        args.put("amount", amount);
-        args.put("value", isBuy ? buy_value : sell_value);
-        super.handleClick(ev, args);
-        try{refreshInventory();}
-        catch (Throwable ignored){}
+    public void handleClick(ClickContext context) {
+        context.set(ClickContext.AMOUNT, amount);
+        context.set(ClickContext.VALUE, isBuy ? buy_value : sell_value);
+        super.handleClick(context);
+        requestRefresh();
     }
 
+    //Drawn slot by slot so a refresh only rewrites what the new amount actually changed
     @Override
-    public void refreshInventory(){
-        super.refreshInventory();
+    protected ItemStack renderSlot(int page, int slot, GuiElement element){
+        if(page != 0)
+            return super.renderSlot(page, slot, element);
+
+        if(element instanceof ReplaceableButton replaceableButton){
+            String[] replacement = new String[]{Temp.getShowAmount(amount), isBuy ?
+                    Temp.getBuyLore(buy_value * (1.0 * amount)) :
+                    Temp.getSellLore(sell_value * (1.0 * amount))};
+
+            //Cached under the template's button, which every player's instance shares, so the same item at the same amount renders once for everyone
+            String[] key = {material.name(), item_name, String.valueOf(isBuy ? max_buy : max_sell), String.valueOf(item.getAmount()), replacement[0], replacement[1]};
+            ItemStack cached = RenderCache.get(replaceableButton, displayKey, key);
 
-        Inventory inventory = pageInventories.get(0);
+            if(cached != null)
+                return cached;
 
-        if(inventory.isEmpty())
-            return;
+            if(displayButton == null || displayTemplate != replaceableButton){
+                displayButton = ReplaceableButton.createSimpleReplaceableButton(this.item, this.item_name, replaceableButton.getLoreClone());
+                displayTemplate = replaceableButton;
+            }
 
-        String[] replacement = new String[]{Temp.getShowAmount(amount), isBuy ?
-                Temp.getBuyLore(buy_value * (1.0 * amount)) :
-                Temp.getSellLore(sell_value * (1.0 * amount))};
+            ItemStack rendered = displayButton.getItemStackClone(this.item, placeholders, replacement);
+            RenderCache.put(replaceableButton, displayKey, key, rendered);
+            return rendered;
+        }
 
-        ItemStack fill = new ItemStack(isBuy ? Material.GREEN_STAINED_GLASS_PANE : Material.RED_STAINED_GLASS_PANE);
-        for(Map.Entry<Integer, GuiElement> elements : pageElements.get(0).entrySet())
-            if(elements.getValue() instanceof ReplaceableButton replaceableButton)
-                inventory.setItem(elements.getKey(), ReplaceableButton.createSimpleReplaceableButton(this.item, this.item_name, replaceableButton.getLoreClone()).getItemStackClone(placeholders, replacement));
+        if(element instanceof GenericShopChangeAmount button)
+            return noLongerUseful(button) ? fill : button.getItemStackClone(null);
 
-            else if (elements.getValue() instanceof GenericShopChangeAmount button)
-                inventory.setItem(elements.getKey(), noLongerUseful(button) ? fill : button.getItemStackClone(null));
+        if(element instanceof Filler filler && filler.getItemStackClone().getType() == Material.BLACK_STAINED_GLASS_PANE)
+            return fill;
 
-            else if(elements.getValue() instanceof Filler filler && filler.getItemStackClone().getType() == Material.BLACK_STAINED_GLASS_PANE)
-                inventory.setItem(elements.getKey(), fill);
+        return super.renderSlot(page, slot, element);
+    }
+
+    @Override
+    protected boolean usesTemplateRendering(){
+        return false;
+    }
+
+    //The selected amount survives a template reload and rebase already re-rendered every slot with it,
+    //only the display button built from the old template's button has to go
+    @Override
+    protected void onRebase(){
+        displayButton = null;
+        displayTemplate = null;
     }
 
     @Override
-    protected GUI createNewInstance(UUID player, GUI backGUI, Map<String, Object> args) {
-        return new GenericShopTransactionGUI(guiManager, correspondentManager, title, size, pageElements, backGUI, player, args);
+    protected GUI createNewInstance(UUID player, Map<String, Object> args) {
+        return new GenericShopTransactionGUI(guiManager, correspondentManager, title, size, pageElements, player, args);
     }
 
     private boolean noLongerUseful(GenericShopChangeAmount button){
@@ -1,24 +1,17 @@
 package com.deadshotmdf.spigot_abstract_GUIS;
 
 import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.AbstractButton;
-import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.ButtonIdentifier;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.ButtonProvider;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.TriFunction;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.PlaceholderTemplate;
 import com.iridium.iridiumcolorapi.IridiumColorAPI;
-import org.apache.commons.lang3.StringUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
-import org.reflections.Reflections;
-import org.reflections.scanners.SubTypesScanner;
-import org.reflections.util.ClasspathHelper;
-import org.reflections.util.ConfigurationBuilder;
-import org.reflections.util.FilterBuilder;
-
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Modifier;
+
 import java.util.*;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -29,7 +22,19 @@ public class GUIUtils {
 
     public static AbstractButton<?> loadButton(String actionValue, ItemStack itemStack, AbstractGUIManager correspondantManager, GuiManager guiManager, Map<String, Object> map, String... args) {
         TriFunction<ItemStack, AbstractGUIManager, GuiManager, String[], Map<String, Object>, AbstractButton<?>> factory = buttonMap.get(actionValue);
-        return factory == null ? null : factory.apply(itemStack, correspondantManager, guiManager, args, map);
+
+        if (factory == null)
+            return null;
+
+        try {
+            return factory.apply(itemStack, correspondantManager, guiManager, args, map);
+        }
+        catch (Throwable e) {
+            Logger logger = Bukkit.getLogger();
+            logger.severe("Failed to instantiate action: " + actionValue);
+            logger.severe(e.getMessage());
+            return null;
+        }
     }
 
     public static String color(String s){
@@ -40,11 +45,12 @@ public class GUIUtils {
         return list == null || list.isEmpty() ? new ArrayList<>() : list.stream().map(GUIUtils::color).collect(Collectors.toList());
     }
 
-    public static List<String> replaceList(List<String> list, String[] placeholder, String... replacement){
+    //Compile the lines once with PlaceholderTemplate.compile when they're loaded, rendering never compiles
+    public static List<String> replaceTemplates(List<PlaceholderTemplate> list, String[] placeholder, String... replacement){
         List<String> newList = new ArrayList<>(list.size());
 
-        for(String s : list)
-            newList.add(color(StringUtils.replaceEach(s, placeholder, replacement)));
+        for(PlaceholderTemplate line : list)
+            newList.add(color(line.render(placeholder, replacement)));
 
         return newList;
     }
@@ -81,8 +87,7 @@ public class GUIUtils {
 
     @NotNull
     public static <T> T retrieveObject(Object o, Class<T> clazz, T def) {
-        try {return clazz.cast(o);}
-        catch (Throwable ignored) {return def;}
+        return clazz.isInstance(o) ? clazz.cast(o) : def;
     }
 
     public static Set<Integer> getSlots(Object fromObject){
@@ -132,55 +137,26 @@ public class GUIUtils {
             slots.add(i);
     }
 
-    //This section creates constructors from all the buttons present in the said package
+    //Registers every button the ButtonRegistryProcessor generated a factory for at compile time, no classpath scanning or reflection involved
     public static void createButtons() {
-        Logger logger = Bukkit.getLogger();
-
-        ClassLoader[] classLoaders = new ClassLoader[] {
-                AbstractButton.class.getClassLoader(),
-                Thread.currentThread().getContextClassLoader()
-        };
-
-        String basePackage = "com.deadshotmdf.spigot_abstract_GUIS";
-
-        Reflections reflections = new Reflections(
-                new ConfigurationBuilder()
-                        .setUrls(ClasspathHelper.forPackage(basePackage, classLoaders))
-                        .setScanners(new SubTypesScanner(false))
-                        .filterInputsBy(new FilterBuilder().includePattern("com\\.deadshotmdf\\.spigot_abstract_GUIS\\..+\\.Buttons\\.Implementation\\..*"))
-                        .addClassLoaders(classLoaders)
-        );
-
-        Set<Class<? extends AbstractButton>> buttons = reflections.getSubTypesOf(AbstractButton.class);
-
-        for (Class<? extends AbstractButton> button : buttons) {
-            if (button.isInterface() || Modifier.isAbstract(button.getModifiers()))
-                continue;
-
-            ButtonIdentifier action = button.getAnnotation(ButtonIdentifier.class);
-
-            if (action == null)
-                continue;
-
-            String actionValue = action.value();
+        buttonMap.clear();
+        registerButtons(AbstractButton.class.getClassLoader());
+        Bukkit.getLogger().info("Loaded " + buttonMap.size() + " buttons");
+    }
 
-            if (actionValue == null || actionValue.isBlank())
-                continue;
+    //Other plugins call this with their own class loader to add the registry the processor generated for their buttons
+    public static void registerButtons(ClassLoader classLoader) {
+        Logger logger = Bukkit.getLogger();
 
-            buttonMap.put(actionValue, (itemStack, correspondantManager, guiManager, args, map) -> {
-                try {
-                    Constructor<? extends AbstractButton> constructor = button.getConstructor(ItemStack.class, Object.class, GuiManager.class, String[].class, Map.class);
-                    return constructor.newInstance(itemStack, correspondantManager, guiManager, args, map);
-                } catch (Throwable e) {
-                    logger.severe("Failed to instantiate action: " + actionValue);
-                    logger.severe(e.getMessage());
-                    return null;
-                }
-            });
+        try {
+            for (ButtonProvider provider : ServiceLoader.load(ButtonProvider.class, classLoader))
+                provider.registerButtons(buttonMap);
+        }
+        catch (ServiceConfigurationError e) {
+            logger.severe("Failed to load button registry: " + e.getMessage());
         }
 
         buttonMap.entrySet().removeIf(entry -> entry.getValue() == null);
-        logger.info("Loaded " + buttonMap.size() + " buttons");
     }
 
 }
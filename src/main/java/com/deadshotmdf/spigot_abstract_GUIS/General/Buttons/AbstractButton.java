@@ -2,7 +2,8 @@ package com.deadshotmdf.spigot_abstract_GUIS.General.Buttons;
 
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
-import org.apache.commons.lang3.StringUtils;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.ClickContext;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.PlaceholderTemplate;
 import org.bukkit.NamespacedKey;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.inventory.ItemStack;
@@ -13,12 +14,17 @@ import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public abstract class AbstractButton<T extends AbstractGUIManager> implements GuiElement {
 
     protected @Nullable ItemStack item;
     protected String name;
     protected List<String> lore;
+    //name and lore compiled for rendering, call compileTemplates() after changing either of them
+    protected PlaceholderTemplate nameTemplate;
+    protected List<PlaceholderTemplate> loreTemplates;
+    private boolean loreHasPlaceholders;
     protected final T correspondentManager;
     protected final GuiManager guiManager;
     protected final String[] args;
@@ -47,6 +53,29 @@ public abstract class AbstractButton<T extends AbstractGUIManager> implements Gu
         ItemMeta meta = item != null ? item.getItemMeta() : null;
         this.name = meta != null && meta.hasDisplayName() ? meta.getDisplayName() : "";
         this.lore = meta != null && meta.hasLore() ? meta.getLore() : List.of();
+        compileTemplates();
+    }
+
+    protected void compileTemplates() {
+        this.nameTemplate = PlaceholderTemplate.compile(name);
+        this.loreTemplates = PlaceholderTemplate.compile(lore);
+        this.loreHasPlaceholders = PlaceholderTemplate.anyPlaceholders(loreTemplates);
+    }
+
+    //Swaps what the button shows once it may already have been rendered, the RenderCache would otherwise keep serving the old item
+    protected void setItem(@Nullable ItemStack item) {
+        this.item = item != null ? item.clone() : null;
+
+        ItemMeta meta = item != null ? item.getItemMeta() : null;
+        this.name = meta != null && meta.hasDisplayName() ? meta.getDisplayName() : "";
+        this.lore = meta != null && meta.hasLore() ? meta.getLore() : List.of();
+        compileTemplates();
+        RenderCache.invalidate(this);
+    }
+
+    //Runs the action through GuiManager's ActionPipeline, for clicks whose work would block the server thread
+    protected <R> CompletableFuture<R> runAsync(ClickContext context, ButtonAction<R> action) {
+        return guiManager.getActionPipeline().submit(context, action);
     }
 
     @Override
@@ -54,9 +83,20 @@ public abstract class AbstractButton<T extends AbstractGUIManager> implements Gu
         return item != null ? item.clone() : null;
     }
 
+    //Renders with placeholders go through the RenderCache, only the first render of a given set of replacements does the actual work
     @Override
     public ItemStack getItemStackClone(String[] placeholders, String... replacements) {
-        return getItemStackClone(this.getItemStackClone(), placeholders, replacements);
+        if (item == null || placeholders == null || replacements == null || placeholders.length == 0 || placeholders.length != replacements.length)
+            return getItemStackClone(this.getItemStackClone(), placeholders, replacements);
+
+        ItemStack cached = RenderCache.get(this, placeholders, replacements);
+
+        if (cached != null)
+            return cached;
+
+        ItemStack rendered = getItemStackClone(this.getItemStackClone(), placeholders, replacements);
+        RenderCache.put(this, placeholders, replacements, rendered);
+        return rendered;
     }
 
     @Override
@@ -69,15 +109,23 @@ public abstract class AbstractButton<T extends AbstractGUIManager> implements Gu
         if (placeholders == null || replacements == null || placeholders.length == 0 || placeholders.length != replacements.length)
             return item;
 
+        //With {token} placeholders, text that has no tokens can't change and the item already shows it
+        boolean tokens = PlaceholderTemplate.usesTokens(placeholders);
+        boolean replaceName = !name.isEmpty() && (!tokens || nameTemplate.hasPlaceholders());
+        boolean replaceLore = !lore.isEmpty() && (!tokens || loreHasPlaceholders);
+
+        if (!replaceName && !replaceLore)
+            return item;
+
         ItemMeta meta = item.getItemMeta();
         if (meta == null)
             return item;
 
-        if (!name.isEmpty())
-            meta.setDisplayName(StringUtils.replaceEach(name, placeholders, replacements));
+        if (replaceName)
+            meta.setDisplayName(nameTemplate.render(placeholders, replacements));
 
-        if (!lore.isEmpty())
-            meta.setLore(replaceLore(lore, placeholders, replacements));
+        if (replaceLore)
+            meta.setLore(PlaceholderTemplate.render(loreTemplates, placeholders, replacements));
 
         item.setItemMeta(meta);
         return item;
@@ -111,12 +159,4 @@ public abstract class AbstractButton<T extends AbstractGUIManager> implements Gu
         return new ArrayList<>(lore);
     }
 
-    private static List<String> replaceLore(List<String> loreList, String[] placeholders, String... replacements) {
-        List<String> replacedLore = new ArrayList<>(loreList.size());
-        for (String line : loreList)
-            replacedLore.add(StringUtils.replaceEach(line, placeholders, replacements));
-
-        return replacedLore;
-    }
-
 }
@@ -0,0 +1,127 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Buttons;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+//What a button does when the work behind a click can block: work runs on GuiManager's async executor, then() runs back on the main thread
+//with its result and is where inventories and GUIs get changed. onError() runs on the main thread too, for failures and timeouts.
+//Submit through ActionPipeline (AbstractButton.runAsync), which runs one action per player at a time and drops them if the GUI is closed
+public final class ButtonAction<R> {
+
+    private final Callable<R> work;
+    private BiConsumer<Player, R> then;
+    private BiConsumer<Player, Throwable> onError;
+    private BiConsumer<UUID, R> thenOffline;
+    private BiConsumer<UUID, Throwable> onErrorOffline;
+    //-1 uses the pipeline's default
+    private long timeoutMillis;
+    private ItemStack busyItem;
+    private boolean showBusy;
+    private boolean cancelOnClose;
+
+    private ButtonAction(Callable<R> work) {
+        this.work = work;
+        this.timeoutMillis = -1;
+        this.showBusy = true;
+        this.cancelOnClose = true;
+    }
+
+    //Runs off the main thread, don't touch the world, inventories or GUIs from here
+    public static <R> ButtonAction<R> async(Callable<R> work) {
+        return new ButtonAction<>(work);
+    }
+
+    public static ButtonAction<Void> async(Runnable work) {
+        return new ButtonAction<>(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    //Only called if the player is still online, thenOffline() is called otherwise
+    public ButtonAction<R> then(BiConsumer<Player, R> then) {
+        this.then = then;
+        return this;
+    }
+
+    public ButtonAction<R> onError(BiConsumer<Player, Throwable> onError) {
+        this.onError = onError;
+        return this;
+    }
+
+    //The continuations of an action whose player quit before it finished, only ever reached with cancelOnClose(false). Run on the global thread,
+    //for settling what can't wait for the player to be back, like handing back items a failed payment already took
+    public ButtonAction<R> thenOffline(BiConsumer<UUID, R> thenOffline) {
+        this.thenOffline = thenOffline;
+        return this;
+    }
+
+    public ButtonAction<R> onErrorOffline(BiConsumer<UUID, Throwable> onErrorOffline) {
+        this.onErrorOffline = onErrorOffline;
+        return this;
+    }
+
+    public ButtonAction<R> timeout(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        return this;
+    }
+
+    //Shown in the clicked slot while the action runs, null keeps the pipeline's default
+    public ButtonAction<R> busyItem(ItemStack busyItem) {
+        this.busyItem = busyItem;
+        return this;
+    }
+
+    public ButtonAction<R> showBusy(boolean showBusy) {
+        this.showBusy = showBusy;
+        return this;
+    }
+
+    //false for work that has to finish once it started, like a payment. It then keeps running after the GUI closes and its continuation still runs,
+    //the offline one if the player quit meanwhile
+    public ButtonAction<R> cancelOnClose(boolean cancelOnClose) {
+        this.cancelOnClose = cancelOnClose;
+        return this;
+    }
+
+    public Callable<R> getWork() {
+        return work;
+    }
+
+    public BiConsumer<Player, R> getThen() {
+        return then;
+    }
+
+    public BiConsumer<Player, Throwable> getOnError() {
+        return onError;
+    }
+
+    public BiConsumer<UUID, R> getThenOffline() {
+        return thenOffline;
+    }
+
+    public BiConsumer<UUID, Throwable> getOnErrorOffline() {
+        return onErrorOffline;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public ItemStack getBusyItem() {
+        return busyItem;
+    }
+
+    public boolean isShowBusy() {
+        return showBusy;
+    }
+
+    public boolean isCancelOnClose() {
+        return cancelOnClose;
+    }
+
+}
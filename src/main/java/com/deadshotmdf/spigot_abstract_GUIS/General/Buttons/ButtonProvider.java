@@ -0,0 +1,15 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Buttons;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Map;
+
+//Implemented by the registry ButtonRegistryProcessor generates at compile time and found through ServiceLoader, no classpath scanning involved.
+//Other plugins get one generated for their own @ButtonIdentifier classes and hand their class loader to GUIUtils.registerButtons
+public interface ButtonProvider {
+
+    void registerButtons(Map<String, TriFunction<ItemStack, AbstractGUIManager, GuiManager, String[], Map<String, Object>, AbstractButton<?>>> buttons);
+
+}
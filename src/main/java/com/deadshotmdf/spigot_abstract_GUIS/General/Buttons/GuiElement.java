@@ -1,6 +1,7 @@
 package com.deadshotmdf.spigot_abstract_GUIS.General.Buttons;
 
 import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.ClickContext;
 import org.bukkit.NamespacedKey;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.event.inventory.InventoryClickEvent;
@@ -16,6 +17,14 @@ public interface GuiElement {
     ItemStack getItemStackClone(ItemStack clone, String[] placeholder, String... replace);
     ItemStack getItemStackMarkedAndReplaced(NamespacedKey key, PersistentDataType type, Object value, String[] placeholders, String... replacements);
     boolean canClick(HumanEntity player);
-    void onClick(InventoryClickEvent ev, GUI gui, Map<String, Object> GUIArgs, Map<String, Object> extraArgs);
+
+    //Override one of the two. The context one is what GUIs call, by default it hands the click to the Map based one through
+    //the context's map view, so elements written against it keep working
+    default void onClick(ClickContext context) {
+        onClick(context.getEvent(), context.getGui(), context.getGuiArgs(), context.asMap());
+    }
+
+    default void onClick(InventoryClickEvent ev, GUI gui, Map<String, Object> GUIArgs, Map<String, Object> extraArgs) {
+    }
 
 }
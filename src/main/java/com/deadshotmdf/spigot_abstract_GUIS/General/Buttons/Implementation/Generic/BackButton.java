@@ -20,9 +20,7 @@ public class BackButton extends AbstractButton {
 
     @Override
     public void onClick(InventoryClickEvent ev, GUI gui, Map<String, Object> GUIArgs, Map<String, Object> extraArgs) {
-        if(gui.getBackGUI() != null)
-            guiManager.commenceOpen(ev.getWhoClicked(), gui.getBackGUI(), gui.getBackGUI().getBackGUI(), null);
-        else
+        if(!guiManager.navigateBack(ev.getWhoClicked()))
             guiManager.removeOpenGui(ev.getWhoClicked());
     }
 }
@@ -0,0 +1,37 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.Implementation.Generic;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.AbstractButton;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.ButtonIdentifier;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.SortablePagedGUI;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+//FILTER <name> applies one of the view's filters, clicking it again removes it. FILTER clear removes both the filter and the search.
+//Does nothing in GUIs that aren't a SortablePagedGUI
+@ButtonIdentifier("FILTER")
+public class FilterButton extends AbstractButton {
+
+    private final String filter;
+
+    public FilterButton(@Nullable ItemStack item, AbstractGUIManager correspondentManager, GuiManager guiManager, String[] args, Map<String, Object> elementData) {
+        super(item, correspondentManager, guiManager, args, elementData);
+        this.filter = args.length > 0 && !args[0].equalsIgnoreCase("clear") ? args[0] : null;
+    }
+
+    @Override
+    public void onClick(InventoryClickEvent ev, GUI gui, Map<String, Object> GUIArgs, Map<String, Object> extraArgs) {
+        if(!(gui instanceof SortablePagedGUI<?, ?> sortable))
+            return;
+
+        if(filter == null)
+            sortable.clearFilters();
+        else
+            sortable.setFilter(filter.equalsIgnoreCase(sortable.getFilter()) ? null : filter);
+    }
+}
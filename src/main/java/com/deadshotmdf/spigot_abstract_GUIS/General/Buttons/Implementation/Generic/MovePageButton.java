@@ -5,6 +5,7 @@ import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.ButtonIdentifier;
 import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.NavigationEntry;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
@@ -30,12 +31,13 @@ public class MovePageButton extends AbstractButton {
         int openPage = gui.getPageByInventory(player);
         boolean isValid = !(openPage == -1 || (!isForward && openPage == 0) || (isForward && openPage >= gui.getPageCount()));
 
-        GUI backGUI = gui.getBackGUI();
+        NavigationEntry back = guiManager.peekBack(player.getUniqueId());
+        GUI backGUI = back != null ? guiManager.getGuiTemplate(back.getTemplateName()) : null;
 
         /*Checks if there was a back gui that leads to a previous GUI.
         For example, if you're in a sub category GUI from a shop GUI and you want the player to be sent back to the main shop GUI when the back button is clicked.*/
         if(backGUI != null && backGUI.isShared() && (!isForward && openPage == 0))
-            guiManager.commenceOpen(player, backGUI, gui, null);
+            guiManager.navigateBack(player);
         else
             gui.open(player, isValid ? isForward ? ++openPage : --openPage : 0, false);
     }
@@ -5,6 +5,7 @@ import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.ButtonIdentifier;
 import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.NavigationEntry;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.Nullable;
@@ -23,9 +24,16 @@ public class OpenGUIButton extends AbstractButton {
         this.backGUIName = args.length > 1 ? args[1] : null;
     }
 
+    //With a back GUI given, going back leads there instead of to the GUI the button is in
     @Override
     public void onClick(InventoryClickEvent event, GUI gui, Map<String, Object> GUIArgs, Map<String, Object> extraArgs) {
-        guiManager.openGui(event.getWhoClicked(), guiName, backGUIName != null ? guiManager.getGuiTemplate(backGUIName) : gui, null);
+        if(backGUIName == null){
+            guiManager.navigateTo(event.getWhoClicked(), guiName, null);
+            return;
+        }
+
+        guiManager.openGui(event.getWhoClicked(), guiName, null);
+        guiManager.getNavigation(event.getWhoClicked().getUniqueId()).push(NavigationEntry.of(backGUIName), null);
     }
 
 }
@@ -0,0 +1,39 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.Implementation.Generic;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.AbstractButton;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.ButtonIdentifier;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.SortablePagedGUI;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+//SORT <key> toggles between ascending and descending on every click, SORT <key> asc or SORT <key> desc always sorts that way.
+//Does nothing in GUIs that aren't a SortablePagedGUI
+@ButtonIdentifier("SORT")
+public class SortButton extends AbstractButton {
+
+    private final String sortKey;
+    private final Boolean descending;
+
+    public SortButton(@Nullable ItemStack item, AbstractGUIManager correspondentManager, GuiManager guiManager, String[] args, Map<String, Object> elementData) {
+        super(item, correspondentManager, guiManager, args, elementData);
+        this.sortKey = args.length > 0 ? args[0] : null;
+        this.descending = args.length > 1 ? args[1].equalsIgnoreCase("desc") ? Boolean.TRUE : args[1].equalsIgnoreCase("asc") ? Boolean.FALSE : null : null;
+    }
+
+    @Override
+    public void onClick(InventoryClickEvent ev, GUI gui, Map<String, Object> GUIArgs, Map<String, Object> extraArgs) {
+        if(!(gui instanceof SortablePagedGUI<?, ?> sortable))
+            return;
+
+        if(descending != null)
+            sortable.setSort(sortKey, descending);
+        else
+            sortable.toggleSort(sortKey);
+    }
+}
@@ -0,0 +1,159 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Buttons;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+//Bounded cache of rendered items keyed by (button, placeholders, replacements).
+//The same price and amount combinations get rendered over and over for different players, this skips the meta copy and the string replacing for all but the first.
+//Stored items are never handed out, callers get a clone.
+//Renders come from every region thread on Folia, so a hit never locks: entries live in a ConcurrentHashMap and a hit only marks its entry as used.
+//Only a put that goes over the size evicts, with a clock sweep: used entries get their mark cleared and a second chance, unmarked ones are dropped
+public final class RenderCache {
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static volatile int maxSize = 2048;
+
+    private static final ConcurrentHashMap<Key, Entry> cache = new ConcurrentHashMap<>(256);
+    //Guards the clock hand, only puts that have to evict take it
+    private static final Object evictionLock = new Object();
+    private static Iterator<Map.Entry<Key, Entry>> hand;
+
+    private RenderCache() {
+    }
+
+    //Returns a clone of the cached render, or null on a miss
+    public static ItemStack get(GuiElement button, String[] placeholders, String[] replacements) {
+        if (maxSize <= 0)
+            return null;
+
+        Entry entry = cache.get(new Key(button, placeholders, replacements));
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        //Only written when it changes, hits on a hot entry don't keep dirtying its cache line
+        if (!entry.used)
+            entry.used = true;
+
+        hits.increment();
+        return entry.rendered.clone();
+    }
+
+    //The arrays are copied, callers are free to reuse theirs
+    public static void put(GuiElement button, String[] placeholders, String[] replacements, ItemStack rendered) {
+        int max = maxSize;
+
+        if (max <= 0 || rendered == null)
+            return;
+
+        cache.put(new Key(button, placeholders.clone(), replacements.clone()), new Entry(rendered.clone()));
+
+        if (cache.size() > max)
+            evict(max);
+    }
+
+    //For buttons whose item changes after it was rendered
+    public static void invalidate(GuiElement button) {
+        cache.keySet().removeIf(key -> key.button == button);
+    }
+
+    public static void clear() {
+        cache.clear();
+    }
+
+    //0 or less turns the cache off
+    public static void setMaxSize(int size) {
+        maxSize = size;
+
+        if (size <= 0)
+            cache.clear();
+        else if (cache.size() > size)
+            evict(size);
+    }
+
+    public static int getSize() {
+        return cache.size();
+    }
+
+    private static void evict(int max) {
+        synchronized (evictionLock) {
+            //Every used entry is unmarked at most once per lap, so two laps are always enough
+            int budget = cache.size() * 2 + 1;
+
+            while (cache.size() > max && budget-- > 0) {
+                if (hand == null || !hand.hasNext())
+                    hand = cache.entrySet().iterator();
+
+                if (!hand.hasNext())
+                    return;
+
+                Map.Entry<Key, Entry> next = hand.next();
+                Entry entry = next.getValue();
+
+                if (entry.used)
+                    entry.used = false;
+                else
+                    cache.remove(next.getKey(), entry);
+            }
+        }
+    }
+
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    public static void resetCounters() {
+        hits.reset();
+        misses.reset();
+    }
+
+    private static final class Entry {
+
+        private final ItemStack rendered;
+        //Set by hits, cleared by the clock sweep. A lost update only costs an entry one extra lap or an early eviction
+        private volatile boolean used;
+
+        private Entry(ItemStack rendered) {
+            this.rendered = rendered;
+        }
+    }
+
+    //Buttons are compared by identity, the arrays by content
+    private static final class Key {
+
+        private final GuiElement button;
+        private final String[] placeholders;
+        private final String[] replacements;
+        private final int hash;
+
+        private Key(GuiElement button, String[] placeholders, String[] replacements) {
+            this.button = button;
+            this.placeholders = placeholders;
+            this.replacements = replacements;
+            this.hash = (System.identityHashCode(button) * 31 + Arrays.hashCode(placeholders)) * 31 + Arrays.hashCode(replacements);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && key.button == button && key.hash == hash && Arrays.equals(key.placeholders, placeholders) && Arrays.equals(key.replacements, replacements);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
@@ -1,12 +1,20 @@
 package com.deadshotmdf.spigot_abstract_GUIS.General.Commands;
 
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.AbstractGUI;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.ClickLimiter;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiMetrics;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.SessionTracker;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 public class ReloadCommand implements CommandExecutor {
 
     private final GuiManager guiManager;
@@ -22,8 +30,82 @@ public class ReloadCommand implements CommandExecutor {
             return true;
         }
 
-        guiManager.reloadConfig();
-        sender.sendMessage("Reloaded plugin.");
+        if(args.length > 0 && args[0].equalsIgnoreCase("sessions")) {
+            sendSessions(sender);
+            return true;
+        }
+
+        if(args.length > 0 && args[0].equalsIgnoreCase("stats")) {
+            sendStats(sender, args.length > 1 ? args[1] : null);
+            return true;
+        }
+
+        sender.sendMessage("Reloading plugin...");
+        guiManager.reloadConfig().thenRun(() -> sender.sendMessage("Reloaded plugin."));
         return true;
     }
+
+    //The most expensive templates and buttons of every operation, or every key of one operation. "reset" starts counting over
+    private void sendStats(CommandSender sender, String filter) {
+        GuiMetrics metrics = guiManager.getMetrics();
+        ClickLimiter clickLimiter = guiManager.getClickLimiter();
+
+        if("reset".equalsIgnoreCase(filter)) {
+            metrics.reset();
+            AbstractGUI.resetSlotWriteCounters();
+            clickLimiter.resetCounters();
+            sender.sendMessage("GUI metrics reset.");
+            return;
+        }
+
+        //Counted whether metrics are on or not
+        if(filter == null) {
+            long writes = AbstractGUI.getSlotWrites();
+            long skipped = AbstractGUI.getSkippedSlotWrites();
+            sender.sendMessage("Slot writes: " + writes + " (" + skipped + " skipped as unchanged" + (writes > 0 ? ", " + skipped * 100 / writes + "%" : "") + ")");
+            sender.sendMessage("Dropped clicks: " + clickLimiter.getDroppedByPlayerLimit() + " over the player limit, " + clickLimiter.getDroppedByButtonLimit() + " over the button limit");
+            clickLimiter.getDroppedByTemplate().entrySet().stream().sorted(Map.Entry.<String, Long>comparingByValue().reversed()).limit(5)
+                    .forEach(entry -> sender.sendMessage("  " + entry.getKey() + ": " + entry.getValue()));
+        }
+
+        if(!metrics.isEnabled()) {
+            sender.sendMessage("GUI metrics are disabled, turn on metrics.enabled in the config.");
+            return;
+        }
+
+        GuiMetrics.Op only = filter != null ? GuiMetrics.Op.byName(filter) : null;
+
+        if(filter != null && only == null) {
+            sender.sendMessage("Unknown operation " + filter + ", use one of " + Arrays.stream(GuiMetrics.Op.values()).map(GuiMetrics.Op::getName).toList() + " or reset.");
+            return;
+        }
+
+        for(GuiMetrics.Op op : GuiMetrics.Op.values()) {
+            if(only != null && op != only)
+                continue;
+
+            List<GuiMetrics.Snapshot> snapshots = metrics.snapshot(op);
+
+            if(snapshots.isEmpty())
+                continue;
+
+            sender.sendMessage(op.getName() + ":");
+            snapshots.stream().limit(only != null ? Integer.MAX_VALUE : 5).forEach(snapshot -> sender.sendMessage("  " + snapshot.getKey() + ": " + snapshot.getCount() + "x, "
+                    + "mean " + snapshot.getMeanMicros() + "µs, p50 " + snapshot.percentileMicros(0.5) + "µs, p99 " + snapshot.percentileMicros(0.99) + "µs, "
+                    + "max " + snapshot.getMaxNanos() / 1000 + "µs, total " + snapshot.getTotalNanos() / 1000000 + "ms"));
+        }
+    }
+
+    //Live per player GUIs by template, and what the leak detector found so far
+    private void sendSessions(CommandSender sender) {
+        SessionTracker sessions = guiManager.getSessionTracker();
+        sender.sendMessage("Live GUI sessions: " + sessions.getLive() + " (" + sessions.getCreated() + " opened, " + sessions.getReleased() + " collected, " + sessions.getWatched() + " waiting to be collected)");
+        sessions.getLiveByTemplate().forEach((template, count) -> sender.sendMessage("  " + template + ": " + count));
+
+        if(sessions.getLeaked() == 0 && sessions.getStrayViewers() == 0)
+            return;
+
+        sender.sendMessage("Possible leaks: " + sessions.getLeaked() + ", stray viewers: " + sessions.getStrayViewers() + " (details in the console)");
+        sessions.getLeaksByTemplate().forEach((template, count) -> sender.sendMessage("  " + template + ": " + count));
+    }
 }
@@ -3,98 +3,456 @@ package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiMetrics;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.ClickContext;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
 
 //changingPage variable exists here because spigot doesn't have InventoryCloseEvent.Reason OPEN_NEW. That's a paper feature only, spigot users will have to use a variable and keep track when the GUI is opened for the first time, and when pages are changing
 public abstract class AbstractGUI<T extends AbstractGUIManager> implements GUI{
 
+    //Every slot write that went through writeSlot, and how many of those were skipped because the slot already showed the same item
+    private static final LongAdder SLOT_WRITES = new LongAdder();
+    private static final LongAdder SKIPPED_SLOT_WRITES = new LongAdder();
+
     protected GuiManager guiManager;
     protected final T correspondentManager;
     protected final String title;
     protected final int size;
+    //Only the pages that were opened at least once have an inventory, the others are created by getPageInventory the first time they are needed
     protected final Map<Integer, Inventory> pageInventories;
+    private final Map<Integer, Long> pageLastUsed;
+    //Fingerprint of what every slot of every built page last showed, see fingerprint()
+    private final Map<Integer, long[]> slotFingerprints;
+    //The items behind those fingerprints. Equal hashes are confirmed against them, two different items that collide must still be written
+    private final Map<Integer, ItemStack[]> slotItems;
+    //Live map view over pageTable, kept for subclasses that work with maps. Hot paths read pageTable directly
     protected final Map<Integer, Map<Integer, GuiElement>> pageElements;
+    protected final PageTable pageTable;
     protected UUID viewer;
-    protected GUI backGUI;
     protected String[] placeholders, replacements;
  //   private boolean changingPage;
     protected final Map<String, Object> args;
-
+    //Name and version of the template this GUI was registered as, or created from. Bumped by GuiManager every time the template is replaced
+    protected String templateName;
+    protected int templateVersion;
+    //The template a per player instance was created from. Pages the instance hasn't changed are filled from the template's rendered snapshot
+    protected AbstractGUI<?> template;
+    //Sessions on several threads read the template's snapshots at once (region threads on Folia)
+    private final Map<Integer, RenderedPage> renderedPages;
+    private volatile int renderedModCount;
+    //Items shown instead of what a slot would render, like the busy item of a running button action. Keyed by page << 8 | slot, created on first use
+    private Map<Integer, ItemStack> slotOverlays;
+
+    //Map based adapter, the elements are copied into a new table
     protected AbstractGUI(GuiManager guiManager, T correspondentManager, String title, int size, Map<Integer, Map<Integer, GuiElement>> pageElements, Map<String, Object> args) {
+        this(guiManager, correspondentManager, title, size, PageTable.of(pageElements, size), args);
+    }
+
+    //The table is used as is, pass a copy if it's shared with another GUI
+    protected AbstractGUI(GuiManager guiManager, T correspondentManager, String title, int size, PageTable pageTable, Map<String, Object> args) {
         this.guiManager = guiManager;
         this.correspondentManager = correspondentManager;
         this.title = title;
         this.size = size;
         this.pageInventories = new HashMap<>();
-        this.pageElements = pageElements;
+        this.pageLastUsed = new HashMap<>();
+        this.slotFingerprints = new HashMap<>();
+        this.slotItems = new HashMap<>();
+        this.renderedPages = new ConcurrentHashMap<>();
+        this.pageTable = pageTable;
+        this.pageElements = pageTable.asMap();
         this.args = args;
+    }
 
-        if(pageElements.isEmpty() || pageElements.get(0) == null)
-            pageInventories.put(0, Bukkit.createInventory(null, size, title));
+    @Override
+    public Map<String, Object> getArgs(){
+        return args;
+    }
 
-        int page = 1;
-        int maxPage = pageElements.size();
-        for(Map.Entry<Integer, Map<Integer, GuiElement>> entry : pageElements.entrySet()){
-            Inventory inv = Bukkit.createInventory(null, size, maxPage == 1 ? title : title + ChatColor.GRAY + " (" + page++ + "/" + maxPage + ")");
-            entry.getValue().forEach((slot, element) -> inv.setItem(slot, element.getItemStackClone(null)));
-            pageInventories.put(entry.getKey(), inv);
-        }
+    @Override
+    public abstract boolean isShared();
+
+    @Override
+    public GUI createInstance(UUID player, Map<String, Object> args){
+        if(isShared())
+            return this;
+
+        GUI instance = createNewInstance(player, args);
+        instance.setTemplate(templateName, templateVersion);
+
+        if(instance instanceof AbstractGUI<?> gui)
+            gui.template = this;
+
+        return instance;
     }
 
     @Override
-    public void setBackGUI(GUI backGUI){
-        this.backGUI = backGUI;
+    public String getTemplateName(){
+        return templateName;
     }
 
     @Override
-    public GUI getBackGUI(){
-        return backGUI;
+    public int getTemplateVersion(){
+        return templateVersion;
     }
 
     @Override
-    public abstract boolean isShared();
+    public void setTemplate(String name, int version){
+        this.templateName = name;
+        this.templateVersion = version;
+    }
 
     @Override
-    public GUI createInstance(UUID player, GUI backGUI, Map<String, Object> args){
-        this.backGUI = backGUI;
-        return isShared() ? this : createNewInstance(player, backGUI, args);
+    public void freeze(){
+        pageTable.freeze();
     }
 
-    protected abstract GUI createNewInstance(UUID player, GUI backGUI, Map<String, Object> args);
+    @Override
+    public UUID getViewer(){
+        return viewer;
+    }
 
+    //Moves this GUI onto the elements of a newer version of its template while keeping its own inventories, so whoever is looking at it stays in.
+    //Only slots that render differently are written. Returns false when the layout can't be changed in place (different type, size or title)
     @Override
-    public void open(HumanEntity player, int page, boolean onOpen){
+    public boolean rebase(GUI template){
+        if(!canRebaseOnto(template))
+            return false;
+
+        AbstractGUI<?> other = (AbstractGUI<?>) template;
+        pageTable.copyFrom(other.pageTable);
+        this.templateVersion = other.templateVersion;
+        this.template = other;
+
+        applyPages();
+        onRebase();
+        return true;
+    }
+
+    //The other way around for shared templates: this freshly loaded template takes over the inventories of the one it replaces, viewers included
+    @Override
+    public boolean adoptInventories(GUI previous){
+        if(!canRebaseOnto(previous))
+            return false;
+
+        AbstractGUI<?> other = (AbstractGUI<?>) previous;
+        pageInventories.clear();
+        pageInventories.putAll(other.pageInventories);
+        pageLastUsed.clear();
+        pageLastUsed.putAll(other.pageLastUsed);
+        slotFingerprints.clear();
+        slotFingerprints.putAll(other.slotFingerprints);
+        slotItems.clear();
+        slotItems.putAll(other.slotItems);
+        pageInventories.values().forEach(inv -> {
+            if(inv.getHolder(false) instanceof GuiInventoryHolder holder)
+                holder.setGui(this);
+        });
+
+        applyPages();
+        onRebase();
+        return true;
+    }
+
+    //Every inventory of a GUI goes through here so that events can be routed by its holder
+    protected Inventory createPageInventory(int page, String title){
+        GuiInventoryHolder holder = new GuiInventoryHolder(this, page);
+        Inventory inventory = Bukkit.createInventory(holder, size, title);
+        holder.setInventory(inventory);
+        return inventory;
+    }
+
+    //Returns the inventory of a page, creating and rendering it the first time. Null if the page doesn't exist
+    protected Inventory getPageInventory(int page){
+        Inventory inventory = pageInventories.get(page);
+
+        if(inventory != null || !isPage(page))
+            return inventory;
+
+        inventory = createPageInventory(page, getPageTitle(page));
+        GuiElement[] elements = pageTable.getPage(page);
+        RenderedPage snapshot = getSharedSnapshot(page);
+
+        if(snapshot != null){
+            inventory.setContents(snapshot.getContents());
+            slotFingerprints.put(page, snapshot.getFingerprints().clone());
+            //The snapshot's items are never modified, sharing them is fine
+            slotItems.put(page, snapshot.getContents().clone());
+
+            if(slotOverlays != null)
+                for(Map.Entry<Integer, ItemStack> overlay : slotOverlays.entrySet())
+                    if(overlay.getKey() >> 8 == page)
+                        writeSlot(page, inventory, overlay.getKey() & 0xFF, overlay.getValue());
+        }
+
+        else{
+            slotFingerprints.put(page, new long[size]);
+            slotItems.put(page, new ItemStack[size]);
+
+            if(elements != null)
+                for(long bits = pageTable.getOccupied(page); bits != 0; bits &= bits - 1){
+                    int slot = Long.numberOfTrailingZeros(bits);
+                    writeSlot(page, inventory, slot, renderSlot(page, slot, elements[slot]));
+                }
+        }
+
+        pageInventories.put(page, inventory);
+        pageLastUsed.put(page, System.currentTimeMillis());
+        return inventory;
+    }
+
+    //The template's rendering of a page, as long as this instance still shares the page with it and renders without placeholders
+    private RenderedPage getSharedSnapshot(int page){
+        if(template == null || template == this || !usesTemplateRendering() || placeholders != null || template.placeholders != null || !pageTable.isSharedWith(page, template.pageTable))
+            return null;
+
+        return template.getRenderedPage(page);
+    }
+
+    //Rendered once per template and page, then only read. Inventory.setContents copies the items so the snapshot is never handed out for writing
+    private RenderedPage getRenderedPage(int page){
+        if(renderedModCount != pageTable.getModCount()){
+            renderedPages.clear();
+            renderedModCount = pageTable.getModCount();
+        }
+
+        return renderedPages.computeIfAbsent(page, k -> {
+            ItemStack[] contents = new ItemStack[size];
+            long[] fingerprints = new long[size];
+            GuiElement[] elements = pageTable.getPage(k);
+
+            if(elements != null)
+                for(long bits = pageTable.getOccupied(k); bits != 0; bits &= bits - 1){
+                    int slot = Long.numberOfTrailingZeros(bits);
+                    contents[slot] = elements[slot].getItemStackClone(null);
+                    fingerprints[slot] = fingerprint(contents[slot]);
+                }
+
+            return new RenderedPage(contents, fingerprints);
+        });
+    }
+
+    //Override with false when renderSlot draws something the template wouldn't, the instance then renders its pages itself
+    protected boolean usesTemplateRendering(){
+        return true;
+    }
+
+    //What a slot shows. Override to draw per instance state instead of writing into the inventory after a refresh, so the diffing sees the final item
+    protected ItemStack renderSlot(int page, int slot, GuiElement element){
+        return element != null ? element.getItemStackClone(placeholders, replacements) : null;
+    }
+
+    //Writes the item only if the slot doesn't already show it. Every setItem on a viewed inventory sends a slot update packet
+    protected void writeSlot(int page, Inventory inventory, int slot, ItemStack item){
+        if(slotOverlays != null && !slotOverlays.isEmpty())
+            item = slotOverlays.getOrDefault(page << 8 | slot, item);
+
+        long[] fingerprints = slotFingerprints.computeIfAbsent(page, k -> newUnknownFingerprints());
+        ItemStack[] written = slotItems.computeIfAbsent(page, k -> new ItemStack[size]);
+        long fingerprint = fingerprint(item);
+
+        SLOT_WRITES.increment();
+
+        if(fingerprints[slot] == fingerprint && (fingerprint == 0L || item.equals(written[slot]))){
+            SKIPPED_SLOT_WRITES.increment();
+            return;
+        }
+
+        fingerprints[slot] = fingerprint;
+        //A copy, whoever rendered the item is free to change theirs afterwards
+        written[slot] = item != null ? item.clone() : null;
+        inventory.setItem(slot, item);
+    }
+
+    //The overlay stays over refreshes until it's set back to null, then the slot shows its element again
+    @Override
+    public void setSlotOverlay(int page, int slot, ItemStack item){
+        checkThread("setSlotOverlay");
+
+        if(slot < 0 || slot >= size)
+            return;
+
+        if(item != null){
+            if(slotOverlays == null)
+                slotOverlays = new HashMap<>();
+
+            slotOverlays.put(page << 8 | slot, item);
+        }
+        else if(slotOverlays == null || slotOverlays.remove(page << 8 | slot) == null)
+            return;
+
         Inventory inventory = pageInventories.get(page);
 
-        int max = getPageCount();
-        if (page < 0 || page >= getPageCount() || inventory == null)
+        if(inventory == null)
             return;
 
-//        if(!onOpen)
-//            changingPage = true;
+        GuiElement element = pageTable.get(page, slot);
+        writeSlot(page, inventory, slot, element != null ? renderSlot(page, slot, element) : null);
+    }
+
+    //0 for an empty slot, otherwise the item's hash with a marker bit so it never collides with empty. A match is only a hint, writeSlot confirms it with equals
+    private static long fingerprint(ItemStack item){
+        return item == null ? 0L : (1L << 32) | (item.hashCode() & 0xFFFFFFFFL);
+    }
+
+    private long[] newUnknownFingerprints(){
+        long[] fingerprints = new long[size];
+        Arrays.fill(fingerprints, -1L);
+        return fingerprints;
+    }
+
+    public static long getSlotWrites(){
+        return SLOT_WRITES.sum();
+    }
+
+    public static long getSkippedSlotWrites(){
+        return SKIPPED_SLOT_WRITES.sum();
+    }
+
+    public static void resetSlotWriteCounters(){
+        SLOT_WRITES.reset();
+        SKIPPED_SLOT_WRITES.reset();
+    }
+
+    //Page 0 always exists, even without elements
+    protected boolean isPage(int page){
+        return page == 0 || pageTable.hasPage(page);
+    }
+
+    protected String getPageTitle(int page){
+        int maxPage = getPageCount();
+
+        if(maxPage <= 1)
+            return title;
+
+        int number = 1;
+        for(int p = 0; p < page; p++)
+            if(isPage(p))
+                number++;
+
+        return title + ChatColor.GRAY + " (" + number + "/" + maxPage + ")";
+    }
+
+    //Drops the inventories of pages nobody looked at for idleMillis, they are rebuilt from the elements if opened again
+    @Override
+    public int evictPages(long idleMillis){
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        Iterator<Map.Entry<Integer, Inventory>> iterator = pageInventories.entrySet().iterator();
+
+        while(iterator.hasNext()){
+            Map.Entry<Integer, Inventory> entry = iterator.next();
+
+            if(!entry.getValue().getViewers().isEmpty()){
+                pageLastUsed.put(entry.getKey(), now);
+                continue;
+            }
+
+            if(now - pageLastUsed.getOrDefault(entry.getKey(), 0L) < idleMillis)
+                continue;
+
+            iterator.remove();
+            forgetPage(entry.getKey());
+            evicted++;
+        }
+
+        return evicted;
+    }
+
+    //Forgets the inventory of a page, it's built again from the elements the next time it's needed
+    protected void dropPage(int page){
+        pageInventories.remove(page);
+        forgetPage(page);
+    }
+
+    private void forgetPage(int page){
+        pageLastUsed.remove(page);
+        slotFingerprints.remove(page);
+        slotItems.remove(page);
+    }
+
+    //Called after the elements changed underneath this GUI, override to re-apply per instance rendering
+    protected void onRebase(){
+    }
+
+    protected boolean canRebaseOnto(GUI other){
+        return other != this && other instanceof AbstractGUI<?> gui && gui.getClass() == getClass() && gui.size == size && Objects.equals(gui.title, title);
+    }
+
+    //Makes pageInventories match pageElements: missing pages get an inventory, removed pages send their viewers to the first page
+    private void applyPages(){
+        for(Map.Entry<Integer, Inventory> entry : new ArrayList<>(pageInventories.entrySet())){
+            if(isPage(entry.getKey()))
+                continue;
+
+            dropPage(entry.getKey());
+            List<HumanEntity> viewers = new ArrayList<>(entry.getValue().getViewers());
+
+            if(!viewers.isEmpty()){
+                Inventory first = getPageInventory(0);
+                viewers.forEach(viewer -> viewer.openInventory(first));
+            }
+        }
+
+        for(Map.Entry<Integer, Inventory> entry : pageInventories.entrySet()){
+            int page = entry.getKey();
+            GuiElement[] elements = pageTable.getPage(page);
+
+            for(int slot = 0; slot < size; slot++){
+                GuiElement element = elements != null ? elements[slot] : null;
+                writeSlot(page, entry.getValue(), slot, element != null ? renderSlot(page, slot, element) : null);
+            }
+        }
+    }
+
+    protected abstract GUI createNewInstance(UUID player, Map<String, Object> args);
+
+    @Override
+    public void open(HumanEntity player, int page, boolean onOpen){
+        checkThread("open");
+        long start = startTiming();
+
+        try{
+            int max = getPageCount();
+            if (page < 0 || page >= max)
+                return;
+
+            Inventory inventory = getPageInventory(page);
+            if (inventory == null)
+                return;
+
+            pageLastUsed.put(page, System.currentTimeMillis());
 
-        player.openInventory(inventory);
-   //     changingPage = false;
-        updateTitle(max);
+//            if(!onOpen)
+//                changingPage = true;
+
+            player.openInventory(inventory);
+       //     changingPage = false;
+            updateTitle(max);
+        }
+        finally{
+            stopTiming(GuiMetrics.Op.OPEN, GuiMetrics.templateOf(this), start);
+        }
     }
 
     @Override
-    public void handleClick(InventoryClickEvent ev, Map<String, Object> args) {
-        Inventory inventory = ev.getInventory();
-        int page = getPageByInventory(inventory);
-        HumanEntity player = ev.getWhoClicked();
+    public void handleClick(ClickContext context) {
+        checkThread("handleClick");
+
+        int page = getPageByInventory(context.getEvent().getInventory());
+        HumanEntity player = context.getPlayer();
 
         if (page == -1){
             player.closeInventory();
@@ -102,16 +460,15 @@ public abstract class AbstractGUI<T extends AbstractGUIManager> implements GUI{
             return;
         }
 
-        int slot = ev.getRawSlot();
-        Map<Integer, GuiElement> elements = pageElements.get(page);
-        if (elements == null)
-            return;
-
-        GuiElement element = elements.get(slot);
+        GuiElement element = pageTable.get(page, context.getSlot());
         if (element == null || !element.canClick(player))
             return;
 
-        element.onClick(ev, this, this.args, args);
+        context.setTarget(this, this.args, page);
+        long start = startTiming();
+
+        try{element.onClick(context);}
+        finally{stopTiming(GuiMetrics.Op.BUTTON, GuiMetrics.buttonOf(element), start);}
     }
 
     @Override
@@ -122,31 +479,77 @@ public abstract class AbstractGUI<T extends AbstractGUIManager> implements GUI{
         }
 
         guiManager.removeOpenGui(ev.getPlayer());
+        guiManager.clearNavigation(ev.getPlayer().getUniqueId());
+    }
+
+    //Renders on the next tick together with every other refresh requested until then. Use refreshInventory() when it has to happen right away
+    @Override
+    public void requestRefresh(){
+        if(guiManager != null)
+            guiManager.getRefreshScheduler().markDirty(this);
+        else
+            refreshInventory();
     }
 
     @Override
     public void refreshInventory(){
-        for(Map.Entry<Integer, Inventory> inventoryEntry : pageInventories.entrySet()){
-            Inventory inventory = inventoryEntry.getValue();
+        checkThread("refreshInventory");
+        long start = startTiming();
+
+        try{
+            for(Map.Entry<Integer, Inventory> inventoryEntry : pageInventories.entrySet())
+                refreshPage(inventoryEntry.getKey(), inventoryEntry.getValue());
+        }
+        finally{
+            stopTiming(GuiMetrics.Op.REFRESH, GuiMetrics.templateOf(this), start);
+        }
+    }
 
-            Map<Integer, GuiElement> elements = pageElements.get(inventoryEntry.getKey());
+    protected void refreshPage(int page, Inventory inventory){
+        GuiElement[] elements = pageTable.getPage(page);
 
-            if(elements == null)
-                continue;
+        if(elements == null)
+            return;
 
-            elements.forEach((slot, element) -> inventory.setItem(slot, element.getItemStackClone(placeholders, replacements)));
+        for(long bits = pageTable.getOccupied(page); bits != 0; bits &= bits - 1){
+            int slot = Long.numberOfTrailingZeros(bits);
+            writeSlot(page, inventory, slot, renderSlot(page, slot, elements[slot]));
         }
     }
 
     @Override
     public int getPageCount() {
-        return pageInventories.size();
+        return pageTable.getPageCount() + (pageTable.hasPage(0) ? 0 : 1);
     }
 
     @Override
     public void deletePages(){
-        try{pageInventories.values().forEach(Inventory::clear);}
-        catch(Throwable ignored){}
+        for(Inventory inventory : pageInventories.values()){
+            try{inventory.clear();}
+            catch(Throwable e){Bukkit.getLogger().log(Level.WARNING, "Failed to clear a page of GUI " + templateName, e);}
+        }
+
+        slotFingerprints.values().forEach(fingerprints -> Arrays.fill(fingerprints, 0L));
+        slotItems.values().forEach(items -> Arrays.fill(items, null));
+    }
+
+    //Nothing is kept, if the instance is ever opened again its pages are built from scratch
+    @Override
+    public int release(UUID leaving){
+        int stray = 0;
+
+        for(Inventory inventory : pageInventories.values())
+            for(HumanEntity viewer : inventory.getViewers())
+                if(!viewer.getUniqueId().equals(leaving))
+                    stray++;
+
+        deletePages();
+        pageInventories.clear();
+        pageLastUsed.clear();
+        slotFingerprints.clear();
+        slotItems.clear();
+        slotOverlays = null;
+        return stray;
     }
 
     @Override
@@ -156,20 +559,41 @@ public abstract class AbstractGUI<T extends AbstractGUIManager> implements GUI{
 
     @Override
     public int getPageByInventory(Inventory inventory) {
-        if(inventory == null)
-            return -1;
+        return inventory != null && inventory.getHolder(false) instanceof GuiInventoryHolder holder && holder.getGui() == this ? holder.getPage() : -1;
+    }
+
+    //Safe from any thread, every viewer is closed on their own thread
+    @Override
+    public void forceClose(){
+        Set<HumanEntity> viewers = new HashSet<>();
+        new ArrayList<>(pageInventories.values()).forEach(inv -> viewers.addAll(inv.getViewers()));
 
-        for (Map.Entry<Integer, Inventory> entry : pageInventories.entrySet()) {
-            if (entry.getValue() == inventory)
-                return entry.getKey();
+        if(guiManager == null){
+            viewers.forEach(HumanEntity::closeInventory);
+            return;
         }
 
-        return -1;
+        for(HumanEntity viewer : viewers)
+            if(viewer instanceof Player player)
+                guiManager.getScheduler().runFor(player, player::closeInventory);
+            else
+                viewer.closeInventory();
     }
 
-    @Override
-    public void forceClose(){
-        new HashSet<>(pageInventories.values()).forEach(inv -> new HashSet<>(inv.getViewers()).forEach(HumanEntity::closeInventory));
+    //GuiMetrics.OFF when metrics are disabled, stopTiming then does nothing
+    protected long startTiming(){
+        return guiManager != null ? guiManager.getMetrics().start() : GuiMetrics.OFF;
+    }
+
+    protected void stopTiming(GuiMetrics.Op op, String key, long start){
+        if(start != GuiMetrics.OFF)
+            guiManager.getMetrics().record(op, key, start);
+    }
+
+    //Reports the call when confinement checks are on and this thread doesn't own the GUI
+    protected void checkThread(String what){
+        if(guiManager != null)
+            guiManager.getScheduler().checkOwner(isShared() ? null : viewer, what);
     }
 
     public void updateTitle(Integer max){
@@ -194,4 +618,7 @@ public abstract class AbstractGUI<T extends AbstractGUIManager> implements GUI{
         catch(Throwable ignored){}
     }
 
+    private record RenderedPage(ItemStack[] getContents, long[] getFingerprints){
+    }
+
 }
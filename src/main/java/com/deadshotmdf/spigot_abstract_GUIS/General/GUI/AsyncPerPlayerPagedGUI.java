@@ -0,0 +1,115 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+//PerPlayerPagedGUI whose items are loaded off the server thread, for item lists that come from a database or a large structure.
+//loadItems() runs on GuiManager's async executor, the result is applied on the main thread. Until the first result arrives the free slots
+//show the loading item. A result is dropped if a newer refresh was requested after it, or if the GUI was closed in the meantime
+public abstract class AsyncPerPlayerPagedGUI<S extends AbstractGUIManager, T> extends PerPlayerPagedGUI<S, T> {
+
+    private List<T> items;
+    private int generation;
+    private boolean applying;
+    private boolean closed;
+    //A load was dropped because of a close, the next open starts a new one
+    private boolean reloadOnOpen;
+
+    public AsyncPerPlayerPagedGUI(GuiManager guiManager, S correspondentManager, String title, int size, Map<Integer, Map<Integer, GuiElement>> pageElements, UUID viewer, Map<String, Object> args) {
+        super(guiManager, correspondentManager, title, size, pageElements, viewer, args);
+    }
+
+    //Runs off the main thread, don't touch the world or the GUI from here
+    protected abstract List<T> loadItems();
+
+    //Override to use a different source of futures, an async database driver for example
+    protected CompletableFuture<List<T>> fetchItems() {
+        return CompletableFuture.supplyAsync(this::loadItems, guiManager.getAsyncExecutor());
+    }
+
+    protected ItemStack getLoadingItem() {
+        return guiManager.getLoadingItem();
+    }
+
+    @Override
+    protected final List<T> getItemsToDisplay() {
+        return items != null ? items : List.of();
+    }
+
+    public boolean isLoaded() {
+        return items != null;
+    }
+
+    @Override
+    public void refreshInventory() {
+        if (applying) {
+            super.refreshInventory();
+            return;
+        }
+
+        int requested = ++generation;
+        reloadOnOpen = false;
+
+        if (items == null)
+            showLoading();
+
+        fetchItems().thenAcceptAsync(loaded -> {
+            if (requested != generation || closed)
+                return;
+
+            items = loaded != null ? loaded : List.of();
+            applying = true;
+
+            try {super.refreshInventory();}
+            finally {applying = false;}
+        }, guiManager.getScheduler().executorFor(viewer)).exceptionally(ex -> {
+            Bukkit.getLogger().log(Level.WARNING, "Failed to load items for GUI " + templateName, ex);
+            return null;
+        });
+    }
+
+    @Override
+    public void open(HumanEntity player, int page, boolean onOpen) {
+        closed = false;
+        super.open(player, page, onOpen);
+
+        if (reloadOnOpen || items == null && generation == 0)
+            refreshInventory();
+    }
+
+    @Override
+    public void handleClose(InventoryCloseEvent ev) {
+        if (ev.getReason() != InventoryCloseEvent.Reason.OPEN_NEW) {
+            closed = true;
+            generation++;
+            reloadOnOpen = true;
+        }
+
+        super.handleClose(ev);
+    }
+
+    private void showLoading() {
+        Inventory inventory = getPageInventory(0);
+        ItemStack loading = getLoadingItem();
+
+        if (inventory == null)
+            return;
+
+        for (int slot = 0; slot < size; slot++)
+            if (!savedTemplate.containsKey(slot))
+                writeSlot(0, inventory, slot, loading);
+    }
+
+}
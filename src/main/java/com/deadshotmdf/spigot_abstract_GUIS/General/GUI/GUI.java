@@ -1,10 +1,11 @@
 package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
 
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.ClickContext;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
 
 import java.util.Map;
 import java.util.UUID;
@@ -12,17 +13,30 @@ import java.util.UUID;
 public interface GUI {
 
     boolean isShared();
-    void handleClick(InventoryClickEvent ev, Map<String, Object> args);
+    //The player a per player GUI belongs to, null for shared GUIs and templates
+    UUID getViewer();
+    //Called on per player templates when they're published, they're only copied from after that
+    void freeze();
+    void handleClick(ClickContext context);
     void handleClose(InventoryCloseEvent ev);
     void refreshInventory();
-    GUI createInstance(UUID player, GUI backGUI, Map<String, Object> args);
+    void requestRefresh();
+    GUI createInstance(UUID player, Map<String, Object> args);
+    Map<String, Object> getArgs();
     void open(HumanEntity player, int page, boolean onOpen);
     int getPageCount();
     void deletePages();
+    //Drops every inventory of an instance whose session ended, returns how many players other than the leaving one still had one open
+    int release(UUID leaving);
     int getPageByInventory(Player player);
     int getPageByInventory(Inventory inventory);
-    void setBackGUI(GUI backGUI);
-    GUI getBackGUI();
     void forceClose();
+    String getTemplateName();
+    int getTemplateVersion();
+    void setTemplate(String name, int version);
+    boolean rebase(GUI template);
+    boolean adoptInventories(GUI previous);
+    int evictPages(long idleMillis);
+    void setSlotOverlay(int page, int slot, ItemStack item);
 
 }
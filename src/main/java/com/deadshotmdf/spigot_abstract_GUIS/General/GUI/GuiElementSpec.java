@@ -0,0 +1,10 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//One element of a GUI file after YAML parsing, material resolution and coloring, but before any ItemStack or button exists.
+//getMaterial is null for invisible items, getName is null when no name was set, page is -1 for elements shared by every page
+public record GuiElementSpec(String getKey, String getMaterial, String getName, List<String> getLore, int getCustomModelData, int getPage, Set<Integer> getSlots, Map<String, Object> getElementData) {
+}
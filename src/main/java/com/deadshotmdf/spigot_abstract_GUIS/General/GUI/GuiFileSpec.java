@@ -0,0 +1,7 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
+
+import java.util.List;
+
+//Everything read out of a GUI file's 'gui' section. This is what the TemplateCache snapshots to disk
+public record GuiFileSpec(String getTitle, int getSize, boolean isPerPlayer, String getSpecialType, List<GuiElementSpec> getElements) {
+}
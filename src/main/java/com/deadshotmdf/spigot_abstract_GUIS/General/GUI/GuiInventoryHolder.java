@@ -0,0 +1,42 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.jetbrains.annotations.NotNull;
+
+//Holder of every inventory a GUI creates. Knowing which GUI and page an inventory belongs to is a field read,
+//and an inventory that isn't one of ours is rejected by a single instanceof
+public class GuiInventoryHolder implements InventoryHolder {
+
+    private GUI gui;
+    private final int page;
+    private Inventory inventory;
+
+    public GuiInventoryHolder(GUI gui, int page) {
+        this.gui = gui;
+        this.page = page;
+    }
+
+    public GUI getGui() {
+        return gui;
+    }
+
+    //Used when a reloaded shared template takes over the inventories of the one it replaces
+    void setGui(GUI gui) {
+        this.gui = gui;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    void setInventory(Inventory inventory) {
+        this.inventory = inventory;
+    }
+
+    @Override
+    public @NotNull Inventory getInventory() {
+        return inventory;
+    }
+
+}
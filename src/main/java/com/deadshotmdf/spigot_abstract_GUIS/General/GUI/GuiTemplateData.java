@@ -0,0 +1,12 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
+
+import java.io.File;
+import java.util.Map;
+
+//Everything parsed out of a single GUI file, before any inventory is created.
+//Built off the main thread by the loader, turned into a GUI on the main thread by AbstractGUIManager.buildGUI
+public record GuiTemplateData(AbstractGUIManager getManager, File getFile, String getName, String getTitle, int getSize, boolean isPerPlayer, String getSpecialType, Map<Integer, Map<Integer, GuiElement>> getPages, boolean isFromCache) {
+}
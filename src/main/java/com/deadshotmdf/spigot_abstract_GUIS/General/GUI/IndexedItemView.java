@@ -0,0 +1,236 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+//A collection of items kept sorted by every registered sort key at once, plus a prefix index over their search text.
+//Adding or removing an item updates every index in place instead of re-sorting the whole list.
+//view() hands out PagedDataSources for a sort, filter and search combination, the resolved order of the last few combinations is cached.
+//Adding or removing an item also inserts it into or takes it out of those cached orders with a binary search, they're only rebuilt when sorts or filters are registered.
+//Items must not change in a way that affects their sort keys or search text while they're in here, use update() for that.
+//One view is usually shared by every player's GUI, which on Folia read it from different region threads, so every access locks the view
+public class IndexedItemView<T> {
+
+    private static final int CACHED_VIEWS = 16;
+
+    private final Map<T, Long> ids;
+    private final Map<T, String[]> terms;
+    private final Comparator<T> insertionOrder;
+    private final Map<String, TreeSet<T>> sorted;
+    private final Map<String, Predicate<T>> filters;
+    private final TreeMap<String, Set<T>> prefixIndex;
+    private final Function<T, String> searchText;
+    private final Map<ViewKey, List<T>> views;
+    private long nextId;
+
+    public IndexedItemView(Function<T, String> searchText) {
+        this.ids = new IdentityHashMap<>();
+        this.terms = new IdentityHashMap<>();
+        this.insertionOrder = Comparator.comparingLong(ids::get);
+        this.sorted = new HashMap<>();
+        this.filters = new HashMap<>();
+        this.prefixIndex = new TreeMap<>();
+        this.searchText = searchText;
+        this.views = new LinkedHashMap<>(CACHED_VIEWS, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ViewKey, List<T>> eldest) {
+                return size() > CACHED_VIEWS;
+            }
+        };
+
+        this.sorted.put("", new TreeSet<>(insertionOrder));
+    }
+
+    //Ties are broken by insertion order so no two items ever compare as equal
+    public synchronized void addSort(String key, Comparator<T> comparator) {
+        TreeSet<T> set = new TreeSet<>(comparator.thenComparing(insertionOrder));
+        set.addAll(sorted.get(""));
+        sorted.put(key.toLowerCase(), set);
+        changed();
+    }
+
+    public synchronized void addFilter(String name, Predicate<T> filter) {
+        filters.put(name.toLowerCase(), filter);
+        changed();
+    }
+
+    public synchronized Set<String> getSortKeys() {
+        return Set.copyOf(sorted.keySet());
+    }
+
+    public synchronized Set<String> getFilters() {
+        return Set.copyOf(filters.keySet());
+    }
+
+    public synchronized boolean add(T item) {
+        if (ids.containsKey(item))
+            return false;
+
+        ids.put(item, nextId++);
+        sorted.values().forEach(set -> set.add(item));
+
+        String[] itemTerms = searchTerms(item);
+        terms.put(item, itemTerms);
+
+        for (String term : itemTerms)
+            prefixIndex.computeIfAbsent(term, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(item);
+
+        views.forEach((key, items) -> {
+            if (matches(key, item)) {
+                int index = Collections.binarySearch(items, item, order(key));
+                items.add(-index - 1, item);
+            }
+        });
+
+        return true;
+    }
+
+    public synchronized boolean remove(T item) {
+        if (!ids.containsKey(item))
+            return false;
+
+        //Before the item loses its id, the orders need it to find it
+        views.forEach((key, items) -> {
+            int index = Collections.binarySearch(items, item, order(key));
+
+            if (index >= 0)
+                items.remove(index);
+        });
+
+        sorted.values().forEach(set -> set.remove(item));
+
+        for (String term : terms.remove(item)) {
+            Set<T> items = prefixIndex.get(term);
+
+            if (items != null && items.remove(item) && items.isEmpty())
+                prefixIndex.remove(term);
+        }
+
+        ids.remove(item);
+        return true;
+    }
+
+    //Takes the item out of every index, applies the change and puts it back where it now belongs
+    public synchronized void update(T item, Consumer<T> change) {
+        boolean present = remove(item);
+        change.accept(item);
+
+        if (present)
+            add(item);
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    //Unknown sort keys fall back to insertion order, unknown filters to no filter.
+    //The source always answers with the current items, even ones added after it was handed out
+    public PagedDataSource<T> view(String sort, boolean descending, String filter, String search) {
+        ViewKey key = new ViewKey(normalize(sort), descending, normalize(filter), normalize(search));
+
+        return new PagedDataSource<>() {
+            @Override
+            public int size() {
+                synchronized (IndexedItemView.this) {
+                    return resolve(key).size();
+                }
+            }
+
+            //A copy, the cached order changes in place as items come and go
+            @Override
+            public List<T> range(int from, int to) {
+                synchronized (IndexedItemView.this) {
+                    List<T> items = resolve(key);
+                    return new ArrayList<>(items.subList(Math.min(from, items.size()), Math.min(to, items.size())));
+                }
+            }
+        };
+    }
+
+    private List<T> resolve(ViewKey key) {
+        return views.computeIfAbsent(key, this::build);
+    }
+
+    //Whether the item belongs in the view, the same checks build() makes
+    private boolean matches(ViewKey key, T item) {
+        Predicate<T> filter = filters.get(key.getFilter());
+
+        if (filter != null && !filter.test(item))
+            return false;
+
+        if (key.getSearch().isEmpty())
+            return true;
+
+        for (String term : terms.get(item))
+            if (term.startsWith(key.getSearch()))
+                return true;
+
+        return false;
+    }
+
+    //The order build() lists the view's items in
+    private Comparator<? super T> order(ViewKey key) {
+        Comparator<? super T> comparator = sorted.getOrDefault(key.getSort(), sorted.get("")).comparator();
+        return key.isDescending() ? Collections.reverseOrder(comparator) : comparator;
+    }
+
+    private List<T> build(ViewKey key) {
+        TreeSet<T> set = sorted.getOrDefault(key.getSort(), sorted.get(""));
+        Predicate<T> filter = filters.get(key.getFilter());
+        Set<T> matches = key.getSearch().isEmpty() ? null : searchMatches(key.getSearch());
+
+        if (matches != null && matches.isEmpty())
+            return List.of();
+
+        List<T> items = new ArrayList<>(matches != null ? matches.size() : set.size());
+
+        for (T item : key.isDescending() ? set.descendingSet() : set)
+            if ((matches == null || matches.contains(item)) && (filter == null || filter.test(item)))
+                items.add(item);
+
+        return items;
+    }
+
+    //Every item that has a search term starting with the prefix
+    private Set<T> searchMatches(String prefix) {
+        Set<T> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Set<T> items : prefixIndex.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values())
+            matches.addAll(items);
+
+        return matches;
+    }
+
+    //The whole text and every word of it, so searching "oak" finds "Dark Oak Log"
+    private String[] searchTerms(T item) {
+        String text = searchText != null ? searchText.apply(item) : null;
+
+        if (text == null || text.isBlank())
+            return new String[0];
+
+        String lower = text.toLowerCase().trim();
+        Set<String> itemTerms = new LinkedHashSet<>();
+        itemTerms.add(lower);
+
+        for (String word : lower.split("[\\s_]+"))
+            if (!word.isEmpty())
+                itemTerms.add(word);
+
+        return itemTerms.toArray(new String[0]);
+    }
+
+    //A new sort or filter can change what an existing key resolves to
+    private void changed() {
+        views.clear();
+    }
+
+    private static String normalize(String s) {
+        return s != null ? s.toLowerCase().trim() : "";
+    }
+
+    private record ViewKey(String getSort, boolean isDescending, String getFilter, String getSearch) {
+    }
+
+}
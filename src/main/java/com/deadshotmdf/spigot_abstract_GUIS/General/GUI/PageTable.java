@@ -0,0 +1,469 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
+
+import java.util.*;
+import java.util.function.Function;
+
+//Dense storage of a GUI's elements: one GuiElement[] per page indexed by raw slot, the pages in an array indexed by page number,
+//and a bitmask of the occupied slots of every page so iterating a page never looks at empty slots.
+//Inventories are at most 54 slots, so one long per page is enough for the mask.
+//Copies are copy on write: they share the page arrays with the table they came from and only clone a page the first time one of its slots changes.
+//asMap() gives the old Map<page, Map<slot, element>> shape as a live view for code that still works with maps, writes through it land in the table
+public class PageTable {
+
+    private static final GuiElement[][] NO_PAGES = new GuiElement[0][];
+
+    private final int size;
+    private GuiElement[][] pages;
+    private long[] occupied;
+    //Pages this table may write in place, a page shared with a copy is cloned before its first write
+    private boolean[] owned;
+    private int pageCount;
+    private int modCount;
+    //A frozen table is only read and copied from, which several threads may do at once
+    private volatile boolean frozen;
+    private Map<Integer, Map<Integer, GuiElement>> view;
+
+    public PageTable(int size) {
+        if (size < 0 || size > Long.SIZE)
+            throw new IllegalArgumentException("Unsupported inventory size " + size);
+
+        this.size = size;
+        this.pages = NO_PAGES;
+        this.occupied = new long[0];
+        this.owned = new boolean[0];
+    }
+
+    //Adapter for the map based constructors. Always returns a new table, copying straight from the arrays when the map is already a table view
+    public static PageTable of(Map<Integer, Map<Integer, GuiElement>> pageElements, int size) {
+        if (pageElements instanceof PagesView pagesView)
+            return pagesView.table().copy();
+
+        PageTable table = new PageTable(size);
+
+        if (pageElements != null)
+            pageElements.forEach((page, elements) -> {
+                if (page == null || page < 0)
+                    return;
+
+                table.createPage(page);
+
+                if (elements != null)
+                    elements.forEach((slot, element) -> table.set(page, slot, element));
+            });
+
+        return table;
+    }
+
+    public PageTable copy() {
+        PageTable copy = new PageTable(size);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    //Both tables lose ownership of their pages, whichever writes first gets its own copy.
+    //A frozen table already owns nothing, so copying from it doesn't write to it
+    public void copyFrom(PageTable other) {
+        checkMutable();
+
+        if (!other.frozen)
+            Arrays.fill(other.owned, false);
+
+        pages = other.pages.clone();
+        occupied = other.occupied.clone();
+        owned = new boolean[pages.length];
+        pageCount = other.pageCount;
+        modCount++;
+    }
+
+    //For templates that are only ever copied from once they're published, after this every write throws
+    public void freeze() {
+        if (frozen)
+            return;
+
+        Arrays.fill(owned, false);
+        frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if (frozen)
+            throw new IllegalStateException("Page table is frozen");
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    //One past the highest page number, pages below it may be missing
+    public int getPageLimit() {
+        return pages.length;
+    }
+
+    public boolean hasPage(int page) {
+        return page >= 0 && page < pages.length && pages[page] != null;
+    }
+
+    //The raw slot array of a page, null if the page doesn't exist. Don't write into it, use set()
+    public GuiElement[] getPage(int page) {
+        return page >= 0 && page < pages.length ? pages[page] : null;
+    }
+
+    //True while both tables still point at the same, unmodified page
+    public boolean isSharedWith(int page, PageTable other) {
+        GuiElement[] elements = getPage(page);
+        return elements != null && elements == other.getPage(page) && getOccupied(page) == other.getOccupied(page);
+    }
+
+    //Changes on every write, lets callers know when something derived from the table went stale
+    public int getModCount() {
+        return modCount;
+    }
+
+    public long getOccupied(int page) {
+        return page >= 0 && page < occupied.length ? occupied[page] : 0L;
+    }
+
+    public GuiElement get(int page, int slot) {
+        GuiElement[] elements = getPage(page);
+        return elements != null && slot >= 0 && slot < size ? elements[slot] : null;
+    }
+
+    public GuiElement[] createPage(int page) {
+        if (page < 0)
+            throw new IndexOutOfBoundsException("Negative page " + page);
+
+        checkMutable();
+
+        if (page >= pages.length) {
+            int length = Math.max(page + 1, pages.length * 2);
+            pages = Arrays.copyOf(pages, length);
+            occupied = Arrays.copyOf(occupied, length);
+            owned = Arrays.copyOf(owned, length);
+        }
+
+        if (pages[page] == null) {
+            pages[page] = new GuiElement[size];
+            owned[page] = true;
+            pageCount++;
+            modCount++;
+        }
+
+        return writable(page);
+    }
+
+    private GuiElement[] writable(int page) {
+        checkMutable();
+
+        if (!owned[page]) {
+            pages[page] = pages[page].clone();
+            owned[page] = true;
+        }
+
+        return pages[page];
+    }
+
+    //Slots outside of the inventory are ignored. Setting null empties the slot
+    public GuiElement set(int page, int slot, GuiElement element) {
+        if (slot < 0 || slot >= size)
+            return null;
+
+        if (element == null) {
+            GuiElement[] elements = getPage(page);
+
+            if (elements == null || elements[slot] == null)
+                return null;
+
+            elements = writable(page);
+            GuiElement previous = elements[slot];
+            elements[slot] = null;
+            occupied[page] &= ~(1L << slot);
+            modCount++;
+            return previous;
+        }
+
+        GuiElement[] elements = createPage(page);
+        GuiElement previous = elements[slot];
+        elements[slot] = element;
+        occupied[page] |= 1L << slot;
+        modCount++;
+        return previous;
+    }
+
+    public void clearPage(int page) {
+        GuiElement[] elements = getPage(page);
+
+        if (elements == null || occupied[page] == 0L)
+            return;
+
+        Arrays.fill(writable(page), null);
+        occupied[page] = 0L;
+        modCount++;
+    }
+
+    public void removePage(int page) {
+        if (!hasPage(page))
+            return;
+
+        checkMutable();
+
+        pages[page] = null;
+        occupied[page] = 0L;
+        owned[page] = false;
+        pageCount--;
+        modCount++;
+    }
+
+    public void clear() {
+        checkMutable();
+        pages = NO_PAGES;
+        occupied = new long[0];
+        owned = new boolean[0];
+        pageCount = 0;
+        modCount++;
+    }
+
+    public Map<Integer, Map<Integer, GuiElement>> asMap() {
+        if (view == null)
+            view = new PagesView();
+
+        return view;
+    }
+
+    private Map<Integer, GuiElement> snapshot(int page) {
+        Map<Integer, GuiElement> copy = new LinkedHashMap<>();
+        GuiElement[] elements = getPage(page);
+
+        for (long bits = getOccupied(page); bits != 0; bits &= bits - 1) {
+            int slot = Long.numberOfTrailingZeros(bits);
+            copy.put(slot, elements[slot]);
+        }
+
+        return copy;
+    }
+
+    private final class PagesView extends AbstractMap<Integer, Map<Integer, GuiElement>> {
+
+        private PageTable table() {
+            return PageTable.this;
+        }
+
+        @Override
+        public Map<Integer, GuiElement> get(Object key) {
+            return key instanceof Integer page && hasPage(page) ? new SlotsView(page) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Integer page && hasPage(page);
+        }
+
+        //The previous value is returned as a detached copy, the row itself gets overwritten
+        @Override
+        public Map<Integer, GuiElement> put(Integer page, Map<Integer, GuiElement> elements) {
+            if (elements instanceof SlotsView slots && slots.table() == PageTable.this && slots.page == page)
+                return new LinkedHashMap<>(elements);
+
+            Map<Integer, GuiElement> incoming = elements != null ? new LinkedHashMap<>(elements) : Map.of();
+            Map<Integer, GuiElement> previous = hasPage(page) ? snapshot(page) : null;
+
+            createPage(page);
+            clearPage(page);
+            incoming.forEach((slot, element) -> set(page, slot, element));
+            return previous;
+        }
+
+        @Override
+        public Map<Integer, GuiElement> remove(Object key) {
+            if (!(key instanceof Integer page) || !hasPage(page))
+                return null;
+
+            Map<Integer, GuiElement> previous = snapshot(page);
+            removePage(page);
+            return previous;
+        }
+
+        //Returns the live row, not the value the function created, so writes into the result reach the table
+        @Override
+        public Map<Integer, GuiElement> computeIfAbsent(Integer page, Function<? super Integer, ? extends Map<Integer, GuiElement>> function) {
+            if (hasPage(page))
+                return get(page);
+
+            Map<Integer, GuiElement> created = function.apply(page);
+
+            if (created == null)
+                return null;
+
+            put(page, created);
+            return get(page);
+        }
+
+        @Override
+        public void clear() {
+            PageTable.this.clear();
+        }
+
+        @Override
+        public int size() {
+            return pageCount;
+        }
+
+        @Override
+        public Set<Entry<Integer, Map<Integer, GuiElement>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Integer, Map<Integer, GuiElement>>> iterator() {
+                    return new Iterator<>() {
+                        private int next = advance(0);
+                        private int last = -1;
+
+                        private int advance(int from) {
+                            while (from < pages.length && pages[from] == null)
+                                from++;
+
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < pages.length;
+                        }
+
+                        @Override
+                        public Entry<Integer, Map<Integer, GuiElement>> next() {
+                            if (!hasNext())
+                                throw new NoSuchElementException();
+
+                            last = next;
+                            next = advance(next + 1);
+                            int page = last;
+
+                            return new SimpleEntry<>(page, new SlotsView(page)) {
+                                @Override
+                                public Map<Integer, GuiElement> setValue(Map<Integer, GuiElement> value) {
+                                    return put(page, value);
+                                }
+                            };
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last < 0)
+                                throw new IllegalStateException();
+
+                            removePage(last);
+                            last = -1;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return pageCount;
+                }
+            };
+        }
+    }
+
+    private final class SlotsView extends AbstractMap<Integer, GuiElement> {
+
+        private final int page;
+
+        private SlotsView(int page) {
+            this.page = page;
+        }
+
+        private PageTable table() {
+            return PageTable.this;
+        }
+
+        @Override
+        public GuiElement get(Object key) {
+            return key instanceof Integer slot ? PageTable.this.get(page, slot) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public GuiElement put(Integer slot, GuiElement element) {
+            return set(page, slot, element);
+        }
+
+        @Override
+        public GuiElement remove(Object key) {
+            return key instanceof Integer slot ? set(page, slot, null) : null;
+        }
+
+        @Override
+        public void clear() {
+            clearPage(page);
+        }
+
+        @Override
+        public int size() {
+            return Long.bitCount(getOccupied(page));
+        }
+
+        @Override
+        public Set<Entry<Integer, GuiElement>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Integer, GuiElement>> iterator() {
+                    return new Iterator<>() {
+                        private long remaining = getOccupied(page);
+                        private int last = -1;
+
+                        @Override
+                        public boolean hasNext() {
+                            return remaining != 0;
+                        }
+
+                        @Override
+                        public Entry<Integer, GuiElement> next() {
+                            if (remaining == 0)
+                                throw new NoSuchElementException();
+
+                            int slot = Long.numberOfTrailingZeros(remaining);
+                            remaining &= remaining - 1;
+                            last = slot;
+
+                            return new SimpleEntry<>(slot, PageTable.this.get(page, slot)) {
+                                @Override
+                                public GuiElement setValue(GuiElement value) {
+                                    super.setValue(value);
+                                    return set(page, slot, value);
+                                }
+                            };
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last < 0)
+                                throw new IllegalStateException();
+
+                            set(page, last, null);
+                            last = -1;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return SlotsView.this.size();
+                }
+            };
+        }
+    }
+
+}
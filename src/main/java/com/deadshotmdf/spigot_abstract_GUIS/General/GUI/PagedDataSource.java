@@ -0,0 +1,28 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
+
+import java.util.List;
+
+//Where a PerPlayerWindowedGUI gets its items from. Only the items of the pages around the one being viewed are ever requested,
+//so an implementation backed by a database or a large collection never has to build the full list
+public interface PagedDataSource<T> {
+
+    int size();
+
+    //Items from index from (inclusive) to to (exclusive), to is never past size()
+    List<T> range(int from, int to);
+
+    static <T> PagedDataSource<T> of(List<T> items) {
+        return new PagedDataSource<>() {
+            @Override
+            public int size() {
+                return items.size();
+            }
+
+            @Override
+            public List<T> range(int from, int to) {
+                return items.subList(from, to);
+            }
+        };
+    }
+
+}
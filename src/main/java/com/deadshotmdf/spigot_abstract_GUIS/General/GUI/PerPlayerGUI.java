@@ -4,15 +4,18 @@ import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
 
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 
 public class PerPlayerGUI<T extends AbstractGUIManager> extends AbstractGUI<T> {
 
-    public PerPlayerGUI(GuiManager guiManager, T correspondentManager, String title, int size, Map<Integer, Map<Integer, GuiElement>> pageElements, GUI backGUI, UUID viewer, Map<String, Object> args) {
-        super(guiManager, correspondentManager, title, size, new LinkedHashMap<>(pageElements), args);
-        this.backGUI = backGUI;
+    public PerPlayerGUI(GuiManager guiManager, T correspondentManager, String title, int size, Map<Integer, Map<Integer, GuiElement>> pageElements, UUID viewer, Map<String, Object> args) {
+        super(guiManager, correspondentManager, title, size, pageElements, args);
+        this.viewer = viewer;
+    }
+
+    public PerPlayerGUI(GuiManager guiManager, T correspondentManager, String title, int size, PageTable pageTable, UUID viewer, Map<String, Object> args) {
+        super(guiManager, correspondentManager, title, size, pageTable, args);
         this.viewer = viewer;
     }
 
@@ -20,8 +23,8 @@ public class PerPlayerGUI<T extends AbstractGUIManager> extends AbstractGUI<T> {
     public boolean isShared() { return false; }
 
     @Override
-    protected GUI createNewInstance(UUID player, GUI backGUI, Map<String, Object> args) {
-        return new PerPlayerGUI<>(guiManager, correspondentManager, title, size, pageElements, backGUI, player, args);
+    protected GUI createNewInstance(UUID player, Map<String, Object> args) {
+        return new PerPlayerGUI<>(guiManager, correspondentManager, title, size, pageTable.copy(), player, args);
     }
 
 }
@@ -3,8 +3,6 @@ package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
-import org.bukkit.Bukkit;
-import org.bukkit.inventory.Inventory;
 
 import java.util.*;
 
@@ -14,8 +12,8 @@ public abstract class PerPlayerPagedGUI<S extends AbstractGUIManager, T> extends
 
     protected final Map<Integer, GuiElement> savedTemplate;
 
-    public PerPlayerPagedGUI(GuiManager guiManager, S correspondentManager, String title, int size, Map<Integer, Map<Integer, GuiElement>> pageElements, GUI backGUI, UUID viewer, Map<String, Object> args) {
-        super(guiManager, correspondentManager, title, size, pageElements, backGUI, viewer, args);
+    public PerPlayerPagedGUI(GuiManager guiManager, S correspondentManager, String title, int size, Map<Integer, Map<Integer, GuiElement>> pageElements, UUID viewer, Map<String, Object> args) {
+        super(guiManager, correspondentManager, title, size, pageElements, viewer, args);
         this.savedTemplate = new LinkedHashMap<>(pageElements.get(0));
     }
 
@@ -25,13 +23,8 @@ public abstract class PerPlayerPagedGUI<S extends AbstractGUIManager, T> extends
 
         this.pageElements.clear();
         this.pageElements.put(0, new LinkedHashMap<>(savedTemplate));
-        Inventory first = pageInventories.get(0);
-
         deletePages();
 
-        this.pageInventories.put(0, first != null ? first : Bukkit.createInventory(null, size, title));
-        first.clear();
-
         List<T> items = getItemsToDisplay();
         int currentPage = 0;
         Map<Integer, GuiElement> elements = pageElements.get(currentPage);
@@ -57,9 +50,7 @@ public abstract class PerPlayerPagedGUI<S extends AbstractGUIManager, T> extends
             if (!iterator.hasNext())
                 break;
 
-            pageInventories.computeIfAbsent(++currentPage, k ->
-                    Bukkit.createInventory(null, size, title));
-            elements = pageElements.computeIfAbsent(currentPage, k -> new HashMap<>());
+            elements = pageElements.computeIfAbsent(++currentPage, k -> new HashMap<>());
             elements.putAll(savedTemplate);
             emptySlots = getEmptySlots(elements);
         }
@@ -71,6 +62,19 @@ public abstract class PerPlayerPagedGUI<S extends AbstractGUIManager, T> extends
         updateTitle(getPageCount());
     }
 
+    //Only the fixed template slots come from the new version, the item pages are rebuilt from getItemsToDisplay like on any refresh
+    @Override
+    public boolean rebase(GUI template) {
+        if (!canRebaseOnto(template))
+            return false;
+
+        savedTemplate.clear();
+        savedTemplate.putAll(((PerPlayerPagedGUI<?, ?>) template).savedTemplate);
+        this.templateVersion = template.getTemplateVersion();
+        refreshInventory();
+        return true;
+    }
+
     protected abstract List<T> getItemsToDisplay();
 
     protected abstract GuiElement createGuiElement(T item);
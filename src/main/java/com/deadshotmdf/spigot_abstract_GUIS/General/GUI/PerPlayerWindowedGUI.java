@@ -0,0 +1,198 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.inventory.Inventory;
+
+import java.util.*;
+
+//Same idea as PerPlayerPagedGUI, items fill the free slots of the template page by page, but meant for lists with thousands of entries.
+//The page count is worked out from the data source's size and the number of free slots, and only the page being viewed
+//plus `prefetch` pages on each side are ever built. Moving away from a page drops the pages that fell out of that window.
+//The template keeps its elements as they are so instances can be created from a copy of its table like any PerPlayerGUI,
+//each instance drops the copied pages the first time it builds its window
+public abstract class PerPlayerWindowedGUI<S extends AbstractGUIManager, T> extends PerPlayerGUI<S> {
+
+    protected final Map<Integer, GuiElement> savedTemplate;
+    protected int prefetch;
+    private int[] freeSlots;
+    private int itemCount;
+    private int currentPage;
+    //False until the pages copied from the template were dropped in favour of the windowed ones
+    private boolean windowed;
+
+    public PerPlayerWindowedGUI(GuiManager guiManager, S correspondentManager, String title, int size, Map<Integer, Map<Integer, GuiElement>> pageElements, UUID viewer, Map<String, Object> args) {
+        super(guiManager, correspondentManager, title, size, pageElements, viewer, args);
+        Map<Integer, GuiElement> first = pageElements.get(0);
+        this.savedTemplate = first != null ? new LinkedHashMap<>(first) : new LinkedHashMap<>();
+        this.prefetch = 1;
+        this.itemCount = -1;
+        computeFreeSlots();
+    }
+
+    protected abstract PagedDataSource<T> getDataSource();
+
+    protected abstract GuiElement createGuiElement(T item);
+
+    @Override
+    public int getPageCount() {
+        if (itemCount < 0) {
+            PagedDataSource<T> source = getDataSource();
+            itemCount = source != null ? source.size() : 0;
+        }
+
+        return freeSlots.length == 0 ? 1 : Math.max(1, (itemCount + freeSlots.length - 1) / freeSlots.length);
+    }
+
+    @Override
+    protected boolean isPage(int page) {
+        return page >= 0 && page < getPageCount();
+    }
+
+    @Override
+    protected Inventory getPageInventory(int page) {
+        loadPage(page);
+        return super.getPageInventory(page);
+    }
+
+    @Override
+    public void open(HumanEntity player, int page, boolean onOpen) {
+        if (!isPage(page))
+            return;
+
+        currentPage = page;
+        loadWindow();
+        super.open(player, page, onOpen);
+    }
+
+    //Asks the data source for its size again and rebuilds only the pages in the window, the diffing keeps the slot writes to what changed
+    @Override
+    public void refreshInventory() {
+        itemCount = -1;
+        int count = getPageCount();
+
+        if (startWindow())
+            for (int page = 0; page < pageTable.getPageLimit(); page++)
+                pageTable.removePage(page);
+
+        if (currentPage >= count) {
+            currentPage = count - 1;
+
+            for (Map.Entry<Integer, Inventory> entry : new ArrayList<>(pageInventories.entrySet())) {
+                if (entry.getKey() < count)
+                    continue;
+
+                List<HumanEntity> viewers = new ArrayList<>(entry.getValue().getViewers());
+                dropPage(entry.getKey());
+                viewers.forEach(viewer -> open(viewer, currentPage, false));
+            }
+        }
+
+        loadWindow();
+        super.refreshInventory();
+        updateTitle(count);
+    }
+
+    //Every slot is written, not only the occupied ones, so items that left the page are cleared
+    @Override
+    protected void refreshPage(int page, Inventory inventory) {
+        GuiElement[] elements = pageTable.getPage(page);
+
+        for (int slot = 0; slot < size; slot++) {
+            GuiElement element = elements != null ? elements[slot] : null;
+            writeSlot(page, inventory, slot, element != null ? renderSlot(page, slot, element) : null);
+        }
+    }
+
+    @Override
+    public boolean rebase(GUI template) {
+        if (!canRebaseOnto(template))
+            return false;
+
+        savedTemplate.clear();
+        savedTemplate.putAll(((PerPlayerWindowedGUI<?, ?>) template).savedTemplate);
+        this.templateVersion = template.getTemplateVersion();
+        computeFreeSlots();
+        refreshInventory();
+        return true;
+    }
+
+    //Loads the pages around currentPage and drops the ones outside of it
+    protected void loadWindow() {
+        if (!startWindow())
+            return;
+
+        int from = currentPage - prefetch;
+        int to = currentPage + prefetch;
+
+        for (int page = 0; page < pageTable.getPageLimit(); page++)
+            if ((page < from || page > to) && pageTable.hasPage(page))
+                pageTable.removePage(page);
+
+        for (Map.Entry<Integer, Inventory> entry : new ArrayList<>(pageInventories.entrySet()))
+            if ((entry.getKey() < from || entry.getKey() > to) && entry.getValue().getViewers().isEmpty())
+                dropPage(entry.getKey());
+
+        for (int page = Math.max(0, from); page <= to; page++)
+            loadPage(page);
+    }
+
+    private void loadPage(int page) {
+        if (!startWindow() || pageTable.hasPage(page) || !isPage(page))
+            return;
+
+        pageTable.createPage(page);
+        savedTemplate.forEach((slot, element) -> pageTable.set(page, slot, element));
+
+        PagedDataSource<T> source = getDataSource();
+
+        if (source == null || freeSlots.length == 0)
+            return;
+
+        int start = page * freeSlots.length;
+        int end = Math.min(itemCount, start + freeSlots.length);
+
+        if (start >= end)
+            return;
+
+        int index = 0;
+        for (T item : source.range(start, end)) {
+            if (index >= freeSlots.length)
+                break;
+
+            GuiElement element = createGuiElement(item);
+
+            if (element != null)
+                pageTable.set(page, freeSlots[index], element);
+
+            index++;
+        }
+    }
+
+    //A frozen table is the template's, which is never windowed itself
+    private boolean startWindow() {
+        if (pageTable.isFrozen())
+            return false;
+
+        if (!windowed) {
+            windowed = true;
+            pageTable.clear();
+        }
+
+        return true;
+    }
+
+    private void computeFreeSlots() {
+        int[] slots = new int[size];
+        int count = 0;
+
+        for (int slot = 0; slot < size; slot++)
+            if (!savedTemplate.containsKey(slot))
+                slots[count++] = slot;
+
+        this.freeSlots = Arrays.copyOf(slots, count);
+    }
+
+}
@@ -3,23 +3,132 @@ package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiMetrics;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.ClickContext;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
 
+//One set of inventories shown to every player, each refresh renders once for all of them.
+//Keeps track of who is looking at it: refreshes only render pages that are being viewed, the others are marked stale
+//and catch up when someone opens them. With no viewers at all a refresh costs nothing.
+//Its viewers can be spread over several region threads on Folia, so instead of being confined to a thread every entry point locks the GUI
 public class SharedGUI<T extends AbstractGUIManager> extends AbstractGUI<T> {
 
+    private final Set<UUID> viewers;
+    private final Set<Integer> stalePages;
+
     public SharedGUI(GuiManager guiManager, T correspondentManager, String title, int size, Map<Integer, Map<Integer, GuiElement>> pageElements) {
         super(guiManager, correspondentManager, title, size, pageElements, new HashMap<>());
+        this.viewers = new HashSet<>();
+        this.stalePages = new HashSet<>();
     }
 
     @Override
     public boolean isShared() { return true; }
 
     @Override
-    protected GUI createNewInstance(UUID player, GUI backGUI, Map<String, Object> args) {
+    protected GUI createNewInstance(UUID player, Map<String, Object> args) {
         return this;
     }
 
+    public synchronized int getViewerCount() {
+        return viewers.size();
+    }
+
+    @Override
+    public synchronized void handleClick(ClickContext context) {
+        super.handleClick(context);
+    }
+
+    @Override
+    public synchronized void setSlotOverlay(int page, int slot, ItemStack item) {
+        super.setSlotOverlay(page, slot, item);
+    }
+
+    //Locked instead of confined, any thread may call in
+    @Override
+    protected void checkThread(String what) {
+    }
+
+    //Changing pages closes the old inventory first, so the viewer is removed by handleClose and added back here
+    @Override
+    public synchronized void open(HumanEntity player, int page, boolean onOpen) {
+        Inventory inventory = pageInventories.get(page);
+
+        if (stalePages.remove(page) && inventory != null)
+            refreshPage(page, inventory);
+
+        super.open(player, page, onOpen);
+
+        if (getPageByInventory(player.getOpenInventory().getTopInventory()) != -1)
+            viewers.add(player.getUniqueId());
+    }
+
+    @Override
+    public synchronized void handleClose(InventoryCloseEvent ev) {
+        viewers.remove(ev.getPlayer().getUniqueId());
+        super.handleClose(ev);
+    }
+
+    @Override
+    public synchronized void requestRefresh() {
+        if (viewers.isEmpty()) {
+            stalePages.addAll(pageInventories.keySet());
+            return;
+        }
+
+        super.requestRefresh();
+    }
+
+    @Override
+    public synchronized void refreshInventory() {
+        if (viewers.isEmpty()) {
+            stalePages.addAll(pageInventories.keySet());
+            return;
+        }
+
+        long start = startTiming();
+
+        try {
+            for (Map.Entry<Integer, Inventory> entry : pageInventories.entrySet()) {
+                if (entry.getValue().getViewers().isEmpty()) {
+                    stalePages.add(entry.getKey());
+                    continue;
+                }
+
+                stalePages.remove(entry.getKey());
+                refreshPage(entry.getKey(), entry.getValue());
+            }
+        }
+        finally {
+            stopTiming(GuiMetrics.Op.REFRESH, GuiMetrics.templateOf(this), start);
+        }
+    }
+
+    @Override
+    public synchronized int evictPages(long idleMillis) {
+        int evicted = super.evictPages(idleMillis);
+        stalePages.retainAll(pageInventories.keySet());
+        return evicted;
+    }
+
+    //The viewers come along with the inventories, the adopted pages are rendered from the new elements so nothing is stale anymore
+    @Override
+    public synchronized boolean adoptInventories(GUI previous) {
+        if (!super.adoptInventories(previous))
+            return false;
+
+        viewers.clear();
+        stalePages.clear();
+
+        if (previous instanceof SharedGUI<?> shared)
+            viewers.addAll(shared.viewers);
+
+        return true;
+    }
+
 }
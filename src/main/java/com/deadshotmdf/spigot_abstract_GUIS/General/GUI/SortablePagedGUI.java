@@ -0,0 +1,92 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+
+import java.util.Map;
+import java.util.UUID;
+
+//PerPlayerWindowedGUI over an IndexedItemView, with a sort key, a filter and a search prefix picked per player.
+//The view keeps its indexes up to date on its own, so changing any of these only rebuilds the window around the page being viewed.
+//The SORT and FILTER buttons drive this from the YAML files
+public abstract class SortablePagedGUI<S extends AbstractGUIManager, T> extends PerPlayerWindowedGUI<S, T> {
+
+    private String sortKey;
+    private boolean descending;
+    private String filter;
+    private String search;
+
+    public SortablePagedGUI(GuiManager guiManager, S correspondentManager, String title, int size, Map<Integer, Map<Integer, GuiElement>> pageElements, UUID viewer, Map<String, Object> args) {
+        super(guiManager, correspondentManager, title, size, pageElements, viewer, args);
+    }
+
+    //Usually one view shared by every player, kept by the manager and updated as items come and go
+    protected abstract IndexedItemView<T> getItemView();
+
+    @Override
+    protected PagedDataSource<T> getDataSource() {
+        IndexedItemView<T> view = getItemView();
+        return view != null ? view.view(sortKey, descending, filter, search) : null;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public String getSearch() {
+        return search;
+    }
+
+    public void setSort(String sortKey, boolean descending) {
+        if (same(this.sortKey, sortKey) && this.descending == descending)
+            return;
+
+        this.sortKey = sortKey;
+        this.descending = descending;
+        refreshInventory();
+    }
+
+    //Picking the sort that's already active flips its direction, switching to another sort starts it ascending
+    public void toggleSort(String sortKey) {
+        setSort(sortKey, same(this.sortKey, sortKey) ? !descending : false);
+    }
+
+    public void setFilter(String filter) {
+        if (same(this.filter, filter))
+            return;
+
+        this.filter = filter;
+        refreshInventory();
+    }
+
+    public void setSearch(String search) {
+        if (same(this.search, search))
+            return;
+
+        this.search = search;
+        refreshInventory();
+    }
+
+    public void clearFilters() {
+        if (filter == null && search == null)
+            return;
+
+        this.filter = null;
+        this.search = null;
+        refreshInventory();
+    }
+
+    private static boolean same(String a, String b) {
+        return a == null ? b == null : a.equalsIgnoreCase(b);
+    }
+
+}
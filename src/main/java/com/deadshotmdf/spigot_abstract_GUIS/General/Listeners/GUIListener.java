@@ -1,18 +1,15 @@
 package com.deadshotmdf.spigot_abstract_GUIS.General.Listeners;
 
 import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GuiInventoryHolder;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiMetrics;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.ClickContext;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.TypeAction;
-import org.bukkit.entity.Player;
 import org.bukkit.event.*;
-import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.event.inventory.InventoryCloseEvent;
-import org.bukkit.event.inventory.InventoryCreativeEvent;
-import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.*;
 import org.bukkit.event.player.PlayerQuitEvent;
 
-import java.util.HashMap;
-
 public class GUIListener implements Listener {
 
     private final GuiManager guiManager;
@@ -23,50 +20,66 @@ public class GUIListener implements Listener {
 
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onCreative(InventoryCreativeEvent ev){
-        handle((Player) ev.getWhoClicked(), ev, TypeAction.NOT_SUPPORTED);
+        handle(ev, TypeAction.NOT_SUPPORTED);
     }
 
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onDrag(InventoryDragEvent ev){
-        handle((Player) ev.getWhoClicked(), ev, TypeAction.NOT_SUPPORTED);
+        handle(ev, TypeAction.NOT_SUPPORTED);
     }
 
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onClick(InventoryClickEvent ev) {
-        handle((Player) ev.getWhoClicked(), ev, TypeAction.CLICK);
+        handle(ev, TypeAction.CLICK);
     }
 
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onClose(InventoryCloseEvent ev) {
-        handle((Player) ev.getPlayer(), ev, TypeAction.CLOSE);
+        handle(ev, TypeAction.CLOSE);
     }
 
     @EventHandler(priority = EventPriority.HIGH)
     public void onQuit(PlayerQuitEvent ev) {
-        handle(ev.getPlayer(), ev, TypeAction.LEAVE);
+        guiManager.removeOpenGui(ev.getPlayer());
+        guiManager.clearNavigation(ev.getPlayer().getUniqueId());
+        guiManager.getClickLimiter().forget(ev.getPlayer());
     }
 
-    private void handle(Player player, Event ev, TypeAction action){
-        GUI gui = guiManager.getOpenGui(player.getUniqueId());
-
-        if(gui == null)
+    //The top inventory's holder says which GUI and page the event belongs to, anything that isn't a GuiInventoryHolder is not ours
+    private void handle(InventoryEvent ev, TypeAction action){
+        if(!(ev.getInventory().getHolder(false) instanceof GuiInventoryHolder holder))
             return;
 
+        GUI gui = holder.getGui();
+        GuiMetrics metrics = guiManager.getMetrics();
+        long start = metrics.start();
+
         if(ev instanceof Cancellable cancellable)
             cancellable.setCancelled(true);
 
-        switch(action){
-            case CLICK:
-                gui.handleClick((InventoryClickEvent) ev, new HashMap<>());
-                break;
-            case CLOSE:
-                gui.handleClose((InventoryCloseEvent) ev);
-                break;
-            case LEAVE:
-                guiManager.removeOpenGui(player);
-                break;
+        try{
+            switch(action){
+                case CLICK:
+                    click((InventoryClickEvent) ev, gui, holder.getPage());
+                    break;
+                case CLOSE:
+                    gui.handleClose((InventoryCloseEvent) ev);
+                    break;
+            }
+        }
+        finally{
+            metrics.record(GuiMetrics.Op.EVENT, GuiMetrics.templateOf(gui), start);
         }
     }
 
-}
+    //Over budget clicks stop here, already cancelled, before any GUI or button code runs
+    private void click(InventoryClickEvent ev, GUI gui, int page){
+        if(!guiManager.getClickLimiter().tryClick(ev.getWhoClicked(), gui.getTemplateName(), page, ev.getRawSlot()))
+            return;
 
+        try(ClickContext context = ClickContext.acquire(ev)){
+            gui.handleClick(context);
+        }
+    }
+
+}
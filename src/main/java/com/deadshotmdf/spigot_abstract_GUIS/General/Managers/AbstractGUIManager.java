@@ -4,19 +4,26 @@ import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.AbstractButton;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.Implementation.Generic.Label;
 import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GuiElementSpec;
 import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GuiElementsData;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GuiFileSpec;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GuiTemplateData;
 import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.PerPlayerGUI;
 import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.SharedGUI;
 import com.deadshotmdf.spigot_abstract_GUIS.GUIUtils;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.InformationHolder;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -41,8 +48,33 @@ public abstract class AbstractGUIManager extends InformationHolder {
         this.loadGUIsRecursive(basePath);
     }
 
+    //Synchronous path, parses and registers every file right away on the calling thread.
+    //GuiManager.reloadConfig uses the parallel GuiLoader instead
     public void loadGUIsRecursive(File directory) {
-        if(!basePath.exists() && basePath.isDirectory())
+        for (File file : collectGUIFiles(directory)) {
+            GuiTemplateData data = parseGUI(file);
+
+            if (data != null)
+                guiManager.registerGuiTemplate(data.getName(), buildGUI(data));
+        }
+    }
+
+    public File getBasePath(){
+        return basePath;
+    }
+
+    public List<File> collectGUIFiles(){
+        return collectGUIFiles(basePath);
+    }
+
+    public List<File> collectGUIFiles(File directory){
+        List<File> guiFiles = new ArrayList<>();
+        collectGUIFiles(directory, guiFiles);
+        return guiFiles;
+    }
+
+    private void collectGUIFiles(File directory, List<File> guiFiles) {
+        if(!directory.isDirectory())
             return;
 
         File[] files = directory.listFiles();
@@ -52,37 +84,87 @@ public abstract class AbstractGUIManager extends InformationHolder {
 
         for (File file : files) {
             if (file.isDirectory())
-                loadGUIsRecursive(file);
+                collectGUIFiles(file, guiFiles);
 
             else if (file.isFile() && file.getName().endsWith(".yml"))
-                loadGUI(file, file.getName().replace(".yml", ""));
+                guiFiles.add(file);
         }
     }
 
-    private void loadGUI(File guiFile, String guiName) {
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(guiFile);
-        ConfigurationSection guiSection = config.getConfigurationSection("gui");
+    //Parses the file into its element model without touching any inventory or GuiManager state.
+    //Safe to call from worker threads, returns null if the file has no usable 'gui' section.
+    //The YAML stage is skipped when the TemplateCache holds a snapshot of the exact same file content
+    public GuiTemplateData parseGUI(File guiFile) {
+        String guiName = guiFile.getName().replace(".yml", "");
+        long start = guiManager.getMetrics().start();
 
-        if (guiSection == null) {
-            logger.warning("No 'gui' section found in " + guiFile.getName());
-            return;
+        try {return parseGUI(guiFile, guiName);}
+        finally {guiManager.getMetrics().record(GuiMetrics.Op.PARSE, guiName.toLowerCase(), start);}
+    }
+
+    private GuiTemplateData parseGUI(File guiFile, String guiName) {
+        byte[] content;
+
+        try {content = Files.readAllBytes(guiFile.toPath());}
+        catch (IOException e) {
+            logger.warning("Could not read " + guiFile.getName() + ": " + e.getMessage());
+            return null;
         }
 
-        String title = GUIUtils.color(guiSection.getString("title", "Default Title"));
-        int size = guiSection.getInt("size", 27);
-        boolean perPlayer = guiSection.getBoolean("per_player", false);
+        TemplateCache cache = guiManager.getTemplateCache();
+        byte[] hash = TemplateCache.hash(content);
+        GuiFileSpec spec = cache.read(guiFile, hash);
+        boolean fromCache = spec != null;
 
-        String specialType = guiSection.getString("specialType");
-        GuiElementsData guiElementsData = parseElementsFromYAML(specialType, guiSection, guiSection.getBoolean("needs_specific_slots", true));
+        if (spec == null) {
+            spec = parseSpec(guiFile.getName(), new String(content, StandardCharsets.UTF_8));
 
+            if (spec == null)
+                return null;
+
+            cache.write(guiFile, hash, spec);
+        }
+
+        GuiElementsData guiElementsData = createElements(spec, guiName.toLowerCase());
         Map<Integer, Map<Integer, GuiElement>> mergedPages = mergeDefaultWithPages(guiElementsData.getDefaultElements(), guiElementsData.getPages());
 
         if(mergedPages.isEmpty())
             mergedPages.put(0, guiElementsData.getDefaultElements());
 
-        guiManager.registerGuiTemplate(guiName.toLowerCase(), specifyGUI(perPlayer, guiManager, title, size, mergedPages, specialType));
+        return new GuiTemplateData(this, guiFile, guiName.toLowerCase(), spec.getTitle(), spec.getSize(), spec.isPerPlayer(), spec.getSpecialType(), mergedPages, fromCache);
+    }
+
+    private GuiFileSpec parseSpec(String fileName, String yaml) {
+        YamlConfiguration config = new YamlConfiguration();
+
+        try {config.loadFromString(yaml);}
+        catch (InvalidConfigurationException e) {
+            logger.warning("Invalid YAML in " + fileName + ": " + e.getMessage());
+            return null;
+        }
+
+        ConfigurationSection guiSection = config.getConfigurationSection("gui");
+
+        if (guiSection == null) {
+            logger.warning("No 'gui' section found in " + fileName);
+            return null;
+        }
+
+        String title = GUIUtils.color(guiSection.getString("title", "Default Title"));
+        int size = guiSection.getInt("size", 27);
+        boolean perPlayer = guiSection.getBoolean("per_player", false);
+        String specialType = guiSection.getString("specialType");
+
+        return new GuiFileSpec(title, size, perPlayer, specialType, parseElementsFromYAML(guiSection, guiSection.getBoolean("needs_specific_slots", true)));
+    }
 
-        logger.info("Loaded GUI: " + guiName + " " + mergedPages.size() + " " + mergedPages.get(0).size());
+    //Main thread only, this is where the inventories get created
+    public GUI buildGUI(GuiTemplateData data) {
+        long start = guiManager.getMetrics().start();
+        GUI gui = specifyGUI(data.isPerPlayer(), guiManager, data.getTitle(), data.getSize(), data.getPages(), data.getSpecialType());
+        guiManager.getMetrics().record(GuiMetrics.Op.BUILD, data.getName(), start);
+        logger.info("Loaded GUI: " + data.getName() + " " + data.getPages().size() + " " + data.getPages().getOrDefault(0, Map.of()).size() + (data.isFromCache() ? " (cached)" : ""));
+        return gui;
     }
 
     private Map<Integer, Map<Integer, GuiElement>> mergeDefaultWithPages(Map<Integer, GuiElement> defaultElements, Map<Integer, Map<Integer, GuiElement>> pages) {
@@ -104,9 +186,8 @@ public abstract class AbstractGUIManager extends InformationHolder {
         return mergedPages;
     }
 
-    private GuiElementsData parseElementsFromYAML(String specialType, ConfigurationSection guiSection, boolean needs_specific_slots) {
-        Map<Integer, GuiElement> defaultElements = new LinkedHashMap<>();
-        Map<Integer, Map<Integer, GuiElement>> pages = new LinkedHashMap<>();
+    private List<GuiElementSpec> parseElementsFromYAML(ConfigurationSection guiSection, boolean needs_specific_slots) {
+        List<GuiElementSpec> elements = new ArrayList<>();
 
         int slot_not_needed = 0;
 
@@ -114,7 +195,7 @@ public abstract class AbstractGUIManager extends InformationHolder {
 
         if (elementsSection == null || elementsSection.getKeys(false).isEmpty()) {
             logger.warning("No elements defined in the GUI.");
-            return new GuiElementsData(defaultElements, pages);
+            return elements;
         }
 
         for (String key : elementsSection.getKeys(false)) {
@@ -125,9 +206,8 @@ public abstract class AbstractGUIManager extends InformationHolder {
             }
 
             Map<String, Object> elementData = elementSection.getValues(false);
-            GuiElement element = createGuiElementFromData(specialType, key, elementData);
 
-            if (element == null)
+            if (!(elementData.get("action") instanceof String action) || action.isEmpty())
                 continue;
 
             int page = parsePageNumber(elementData.get("page"));
@@ -142,12 +222,28 @@ public abstract class AbstractGUIManager extends InformationHolder {
                 else
                     continue;
 
-            int finalPage = page;
-            slots.forEach(slot ->{
-                if(finalPage < 0)
+            elements.add(parseElementSpec(key, elementData, page, slots));
+        }
+
+        return elements;
+    }
+
+    private GuiElementsData createElements(GuiFileSpec spec, String template) {
+        Map<Integer, GuiElement> defaultElements = new LinkedHashMap<>();
+        Map<Integer, Map<Integer, GuiElement>> pages = new LinkedHashMap<>();
+
+        for (GuiElementSpec elementSpec : spec.getElements()) {
+            GuiElement element = createGuiElementFromData(template, spec.getSpecialType(), elementSpec);
+
+            if (element == null)
+                continue;
+
+            int page = elementSpec.getPage();
+            elementSpec.getSlots().forEach(slot ->{
+                if(page < 0)
                     defaultElements.put(slot, element);
                 else
-                    pages.computeIfAbsent(finalPage, k -> new LinkedHashMap<>()).put(slot, element);
+                    pages.computeIfAbsent(page, k -> new LinkedHashMap<>()).put(slot, element);
             });
         }
 
@@ -175,8 +271,9 @@ public abstract class AbstractGUIManager extends InformationHolder {
         return -1;
     }
 
-    private GuiElement createGuiElementFromData(String specialType, String key, Map<String, Object> elementData) {
-        ItemStack item = parseItem(key, elementData);
+    private GuiElement createGuiElementFromData(String template, String specialType, GuiElementSpec spec) {
+        ItemStack item = createItem(spec);
+        Map<String, Object> elementData = spec.getElementData();
 
         // Proceed even if item is null (item will be invisible)
         String actionStr = (String) elementData.get("action");
@@ -194,44 +291,41 @@ public abstract class AbstractGUIManager extends InformationHolder {
         if (button == null)
             return new Label(item, this, guiManager, args, extraValues);
 
-        return enhanceGuiElement(specialType, item, extraValues, button, actionName, args);
+        //Files are parsed in parallel, so overrides get the manager's lock instead of having to make their own state thread safe
+        synchronized (this) {
+            return enhanceGuiElement(template, specialType, item, extraValues, button, actionName, args);
+        }
+    }
+
+    //Same as below with the name of the template the element belongs to, for managers that keep state per template
+    protected GuiElement enhanceGuiElement(String template, String specialType, ItemStack item, Map<String, Object> elementData, GuiElement element, String action, String[] args) {
+        return enhanceGuiElement(specialType, item, elementData, element, action, args);
     }
 
     //@Override this method to modify/retrieve the button instance from the manager class
+    //Can be called from a loader thread, always while holding this manager's lock
     protected GuiElement enhanceGuiElement(String specialType, ItemStack item, Map<String, Object> elementData, GuiElement element, String action, String[] args) {
         return element;
     }
 
     //@Override this method to modify/retrieve the GUI instance from the manager class
     protected GUI specifyGUI(boolean perPlayer, GuiManager guiManager, String title, int size, Map<Integer, Map<Integer, GuiElement>> mergedPages, String type){
-        return perPlayer ? new PerPlayerGUI<>(guiManager, this, title, size, mergedPages, null, null, new HashMap<>()) : new SharedGUI<>(guiManager, this, title, size, mergedPages);
+        return perPlayer ? new PerPlayerGUI<>(guiManager, this, title, size, mergedPages, null, new HashMap<>()) : new SharedGUI<>(guiManager, this, title, size, mergedPages);
     }
 
-    private ItemStack parseItem(String key, Map<String, Object> elementData) {
+    //Resolves the material and colors the name and lore once, the result is what ends up in the TemplateCache
+    private GuiElementSpec parseElementSpec(String key, Map<String, Object> elementData, int page, Set<Integer> slots) {
         Object mat = elementData.getOrDefault("material", "STONE");
 
         String materialName = mat instanceof String str ? str.toUpperCase() : "null-";
+        Material material = null;
 
-        if (materialName.equals("#INVISIBLE"))
-            // Don't log the message, return null for invisible items
-            return null;
-
-        Material material = Material.getMaterial(materialName);
-
-        if (material == null) {
+        // Don't log the message for invisible items
+        if (!materialName.equals("#INVISIBLE") && (material = Material.getMaterial(materialName)) == null)
             logger.warning("Invalid material at key '" + key + "'. Item will not be visible.");
-            return null;
-        }
-
-        ItemStack item = new ItemStack(material);
-        ItemMeta meta = item.getItemMeta();
-
-        if (meta == null)
-            return item;
 
         Object nameObj = elementData.get("name");
-        if (nameObj instanceof String name && !name.isBlank())
-            meta.setDisplayName(GUIUtils.color(name));
+        String name = nameObj instanceof String str && !str.isBlank() ? GUIUtils.color(str) : null;
 
         Object loreObj = elementData.get("lore");
         List<String> loreList = new ArrayList<>();
@@ -244,16 +338,36 @@ public abstract class AbstractGUIManager extends InformationHolder {
                 if (loreLine instanceof String string)
                     loreList.add(GUIUtils.color((string).trim()));
 
-            meta.setLore(loreList);
+        Integer customModelData = GUIUtils.getInteger(elementData.get("customModelData"));
 
+        return new GuiElementSpec(key, material != null ? material.name() : null, name, loreList, customModelData != null ? customModelData : 0, page, slots, elementData);
+    }
 
-        Integer customModelData = GUIUtils.getInteger(elementData.get("customModelData"));
-        meta.setCustomModelData(customModelData != null ? customModelData : 0);
+    private ItemStack createItem(GuiElementSpec spec) {
+        Material material = spec.getMaterial() != null ? Material.getMaterial(spec.getMaterial()) : null;
+
+        if (material == null)
+            return null;
+
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+
+        if (meta == null)
+            return item;
+
+        if (spec.getName() != null)
+            meta.setDisplayName(spec.getName());
+
+        meta.setLore(new ArrayList<>(spec.getLore()));
+        meta.setCustomModelData(spec.getCustomModelData());
         item.setItemMeta(meta);
         return item;
     }
 
     public void onReload(){}
+    //Main thread, right after templates this manager parsed were swapped in. On a full reload (full) loaded is every template it has now,
+    //anything else it kept from before is gone. On a hot reload loaded were replaced and removed were deleted, the rest is unchanged
+    public void onTemplatesCommitted(Set<String> loaded, Set<String> removed, boolean full){}
     public void loadInformation(){}
     public void saveInformation(){}
 
@@ -0,0 +1,324 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Managers;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.ButtonAction;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.ClickContext;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+//Runs ButtonActions: the work on the async executor, the continuation on the thread that owns the player (the main thread, or the player's region on Folia).
+//A player's actions run one after the other, a second click while the first is still running is queued behind it instead of racing it.
+//Closing the GUI (or quitting) cancels the running action, interrupting its work, and drops the queued ones.
+//The clicked slot shows the busy item until the action is done. Each player's queue is locked on its own, players never wait on each other.
+//Busy state is decided while holding that lock, the slot overlays it changes are written to the inventory once it's released
+public class ActionPipeline {
+
+    private final GuiManager guiManager;
+    private final Logger logger;
+    private final Map<UUID, PlayerQueue> queues;
+    private final LongAdder completed;
+    private final LongAdder failed;
+    private final LongAdder timedOut;
+    private final LongAdder cancelled;
+    private volatile long defaultTimeoutMillis;
+    private volatile ItemStack busyItem;
+    private volatile int maxQueued;
+
+    public ActionPipeline(GuiManager guiManager, Logger logger) {
+        this.guiManager = guiManager;
+        this.logger = logger;
+        this.queues = new ConcurrentHashMap<>();
+        this.completed = new LongAdder();
+        this.failed = new LongAdder();
+        this.timedOut = new LongAdder();
+        this.cancelled = new LongAdder();
+        this.defaultTimeoutMillis = 10000;
+        this.busyItem = new ItemStack(Material.CLOCK);
+        this.maxQueued = 4;
+    }
+
+    //timeoutMillis <= 0 waits forever. maxQueued caps how many actions a player can have waiting, clicks past it are dropped
+    public void configure(long defaultTimeoutMillis, int maxQueued, ItemStack busyItem) {
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+        this.maxQueued = Math.max(0, maxQueued);
+
+        if (busyItem != null)
+            this.busyItem = busyItem;
+    }
+
+    //The context is only read here, the slot, page and GUI are copied out of it.
+    //The returned future completes on the player's thread, exceptionally if the action failed, timed out or was cancelled.
+    //Call from the thread that owns the player, like the click that triggered it
+    public <R> CompletableFuture<R> submit(ClickContext context, ButtonAction<R> action) {
+        UUID uuid = context.getPlayer().getUniqueId();
+        Task<R> task = new Task<>(uuid, context.getGui(), context.getPage(), context.getSlot(), action);
+        List<Runnable> overlays = new ArrayList<>(1);
+
+        //A queue that emptied out is dropped from the map, if it happened in between this takes a fresh one
+        while (true) {
+            PlayerQueue queue = queues.computeIfAbsent(uuid, k -> new PlayerQueue());
+
+            synchronized (queue) {
+                if (queues.get(uuid) != queue)
+                    continue;
+
+                if (queue.current != null && queue.pending.size() >= maxQueued) {
+                    task.result.completeExceptionally(new RejectedExecutionException("Too many actions queued"));
+                    return task.result;
+                }
+
+                queue.pending.add(task);
+
+                if (queue.current == null)
+                    startNext(uuid, queue, overlays);
+            }
+
+            overlays.forEach(Runnable::run);
+            return task.result;
+        }
+    }
+
+    public boolean isBusy(UUID uuid) {
+        PlayerQueue queue = queues.get(uuid);
+
+        if (queue == null)
+            return false;
+
+        synchronized (queue) {
+            return queue.current != null;
+        }
+    }
+
+    //Actions that asked to survive the close keep running and still get their continuation
+    public void cancel(UUID uuid) {
+        cancel(uuid, false);
+    }
+
+    public void cancelAll() {
+        new ArrayList<>(queues.keySet()).forEach(uuid -> cancel(uuid, true));
+    }
+
+    private void cancel(UUID uuid, boolean force) {
+        PlayerQueue queue = queues.get(uuid);
+
+        if (queue == null)
+            return;
+
+        List<Runnable> overlays = new ArrayList<>(2);
+
+        synchronized (queue) {
+            queue.pending.removeIf(task -> (force || task.action.isCancelOnClose()) && task.cancel(overlays));
+
+            if (queue.current != null && (force || queue.current.action.isCancelOnClose())) {
+                queue.current.cancel(overlays);
+                queue.current = null;
+            }
+
+            if (queue.current == null)
+                startNext(uuid, queue, overlays);
+        }
+
+        overlays.forEach(Runnable::run);
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    public long getCancelled() {
+        return cancelled.sum();
+    }
+
+    //Called with the queue locked, the overlay writes go into overlays for the caller to run once it released the lock
+    private void startNext(UUID uuid, PlayerQueue queue, List<Runnable> overlays) {
+        Task<?> task = queue.pending.poll();
+        queue.current = task;
+
+        if (task == null) {
+            queues.remove(uuid, queue);
+            return;
+        }
+
+        task.start(queue, overlays);
+    }
+
+    //The next action only starts once the previous continuation ran, unless that continuation closed the GUI and cancelled the queue
+    private void startNextIfIdle(UUID uuid, PlayerQueue queue) {
+        List<Runnable> overlays = new ArrayList<>(1);
+
+        synchronized (queue) {
+            if (queues.get(uuid) == queue && queue.current == null)
+                startNext(uuid, queue, overlays);
+        }
+
+        overlays.forEach(Runnable::run);
+    }
+
+    //The player's thread while they're online. Work kept running past a quit still has to finish its bookkeeping, that then happens globally
+    private Executor continuationExecutor(UUID uuid) {
+        GuiScheduler scheduler = guiManager.getScheduler();
+        return task -> {
+            if (Bukkit.getPlayer(uuid) != null)
+                scheduler.runFor(uuid, task);
+            else
+                scheduler.runGlobal(task);
+        };
+    }
+
+    private static final class PlayerQueue {
+
+        private final ArrayDeque<Task<?>> pending = new ArrayDeque<>();
+        private Task<?> current;
+    }
+
+    private final class Task<R> {
+
+        private final UUID uuid;
+        private final GUI gui;
+        private final int page;
+        private final int slot;
+        private final ButtonAction<R> action;
+        private final CompletableFuture<R> result;
+        private FutureTask<R> work;
+        private boolean busyShown;
+        private boolean done;
+
+        private Task(UUID uuid, GUI gui, int page, int slot, ButtonAction<R> action) {
+            this.uuid = uuid;
+            this.gui = gui;
+            this.page = page;
+            this.slot = slot;
+            this.action = action;
+            this.result = new CompletableFuture<>();
+        }
+
+        private void start(PlayerQueue queue, List<Runnable> overlays) {
+            if (action.isShowBusy() && gui != null && page >= 0) {
+                ItemStack item = (action.getBusyItem() != null ? action.getBusyItem() : busyItem).clone();
+                overlays.add(() -> gui.setSlotOverlay(page, slot, item));
+                busyShown = true;
+            }
+
+            CompletableFuture<R> outcome = new CompletableFuture<>();
+            this.work = new FutureTask<>(action.getWork()) {
+                @Override
+                protected void done() {
+                    if (isCancelled()) {
+                        outcome.cancel(false);
+                        return;
+                    }
+
+                    try {outcome.complete(get());}
+                    catch (ExecutionException e) {outcome.completeExceptionally(e.getCause());}
+                    catch (Throwable e) {outcome.completeExceptionally(e);}
+                }
+            };
+
+            long timeout = action.getTimeoutMillis() >= 0 ? action.getTimeoutMillis() : defaultTimeoutMillis;
+            CompletableFuture<R> bounded = timeout > 0 ? outcome.orTimeout(timeout, TimeUnit.MILLISECONDS) : outcome;
+
+            bounded.whenCompleteAsync((value, error) -> complete(queue, value, error), continuationExecutor(uuid));
+
+            try {guiManager.getAsyncExecutor().execute(work);}
+            catch (RejectedExecutionException e) {outcome.completeExceptionally(e);}
+        }
+
+        //The continuation runs outside the lock, the next action still waits for it
+        private void complete(PlayerQueue queue, R value, Throwable error) {
+            List<Runnable> overlays = new ArrayList<>(1);
+
+            synchronized (queue) {
+                if (done)
+                    return;
+
+                done = true;
+                clearBusy(overlays);
+
+                if (queue.current == this)
+                    queue.current = null;
+            }
+
+            overlays.forEach(Runnable::run);
+
+            try {apply(value, error);}
+            finally {startNextIfIdle(uuid, queue);}
+        }
+
+        private void apply(R value, Throwable thrown) {
+            Throwable error = thrown instanceof CompletionException && thrown.getCause() != null ? thrown.getCause() : thrown;
+
+            if (error instanceof TimeoutException)
+                work.cancel(true);
+
+            Player player = Bukkit.getPlayer(uuid);
+
+            if (error != null) {
+                (error instanceof TimeoutException ? timedOut : failed).increment();
+                result.completeExceptionally(error);
+
+                if (action.getOnError() != null && player != null)
+                    run(() -> action.getOnError().accept(player, error));
+                else if (action.getOnErrorOffline() != null && player == null)
+                    run(() -> action.getOnErrorOffline().accept(uuid, error));
+                else
+                    logger.log(Level.WARNING, "Button action for " + (player != null ? player.getName() : uuid) + " failed", error);
+
+                return;
+            }
+
+            completed.increment();
+
+            if (action.getThen() != null && player != null)
+                run(() -> action.getThen().accept(player, value));
+            else if (action.getThenOffline() != null && player == null)
+                run(() -> action.getThenOffline().accept(uuid, value));
+
+            result.complete(value);
+        }
+
+        private boolean cancel(List<Runnable> overlays) {
+            if (done)
+                return true;
+
+            done = true;
+            cancelled.increment();
+            clearBusy(overlays);
+
+            if (work != null)
+                work.cancel(true);
+
+            result.completeExceptionally(new CancellationException("GUI closed"));
+            return true;
+        }
+
+        private void clearBusy(List<Runnable> overlays) {
+            if (!busyShown)
+                return;
+
+            busyShown = false;
+            overlays.add(() -> gui.setSlotOverlay(page, slot, null));
+        }
+
+        private void run(Runnable continuation) {
+            try {continuation.run();}
+            catch (Throwable e) {logger.log(Level.WARNING, "Button action continuation failed", e);}
+        }
+    }
+
+}
@@ -0,0 +1,287 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Managers;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.HumanEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+//Caps how many clicks a player can get handled per second, over all GUIs and per button, so a macro clicking at 20+ CPS can't make
+//the server re-render a GUI, run a command or open a GUI on every single click. Both are token buckets: `burst` clicks in a row
+//are fine, then one more every 1 / per_second seconds. Clicks over the budget are cancelled like every GUI click and never reach the button.
+//Templates can override the defaults under click_limits.templates.<template name>.
+//Clicks can arrive on several region threads at once on Folia, the buckets are split over stripes by entity id so each stripe has its own lock
+public class ClickLimiter {
+
+    //Player and button buckets share one table. A button bucket's key is the entity id in the high half and template id << 20 | page << 8 | slot
+    //in the low half, so every template has its own buttons. A player's own bucket uses this in place of the low half, a slot is never 255
+    private static final long PLAYER_BUCKET = 0xFFFFFFFFL;
+    private static final int TEMPLATE_IDS = 0xFFF;
+    //Power of two
+    private static final int STRIPES = 16;
+
+    private final BucketTable[] stripes;
+    private final LongAdder droppedByPlayerLimit;
+    private final LongAdder droppedByButtonLimit;
+    private final Map<String, LongAdder> droppedByTemplate;
+    //Past 4095 templates ids wrap around and a few templates end up sharing their button buckets
+    private final Map<String, Integer> templateIds;
+    private final AtomicInteger nextTemplateId;
+    //Replaced as a whole on load, never changed in place
+    private volatile Map<String, Limits> templateLimits;
+    private volatile Limits defaults;
+    private volatile boolean enabled;
+
+    public ClickLimiter() {
+        this.stripes = new BucketTable[STRIPES];
+
+        for (int i = 0; i < STRIPES; i++)
+            stripes[i] = new BucketTable();
+
+        this.droppedByPlayerLimit = new LongAdder();
+        this.droppedByButtonLimit = new LongAdder();
+        this.droppedByTemplate = new ConcurrentHashMap<>();
+        this.templateIds = new ConcurrentHashMap<>();
+        this.nextTemplateId = new AtomicInteger();
+        this.templateLimits = Map.of();
+        this.defaults = new Limits(new Limit(10, 8), new Limit(4, 5));
+    }
+
+    public void load(ConfigurationSection section) {
+        for (BucketTable stripe : stripes)
+            synchronized (stripe) {
+                stripe.clear();
+            }
+
+        if (section == null) {
+            this.templateLimits = Map.of();
+            this.enabled = false;
+            return;
+        }
+
+        this.defaults = readLimits(section, new Limits(new Limit(10, 8), new Limit(4, 5)));
+        ConfigurationSection templates = section.getConfigurationSection("templates");
+        Map<String, Limits> limits = new HashMap<>();
+
+        if (templates != null)
+            for (String template : templates.getKeys(false))
+                limits.put(template.toLowerCase(), readLimits(templates.getConfigurationSection(template), defaults));
+
+        this.templateLimits = Map.copyOf(limits);
+        this.enabled = section.getBoolean("enabled", true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //false means the click is over budget and should be dropped
+    public boolean tryClick(HumanEntity player, String template, int page, int slot) {
+        if (!enabled)
+            return true;
+
+        Map<String, Limits> templateLimits = this.templateLimits;
+        Limits limits = templateLimits.isEmpty() || template == null ? defaults : templateLimits.getOrDefault(template.toLowerCase(), defaults);
+        long now = System.nanoTime();
+        long playerKey = (long) player.getEntityId() << 32;
+        BucketTable buckets = stripe(player.getEntityId());
+        boolean playerAllowed, buttonAllowed;
+
+        //The button bucket is only charged once the player bucket let the click through, a dropped click costs nothing twice
+        synchronized (buckets) {
+            playerAllowed = buckets.take(playerKey | PLAYER_BUCKET, limits.getPlayer(), now);
+            buttonAllowed = playerAllowed && buckets.take(playerKey | buttonKey(template, page, slot), limits.getButton(), now);
+        }
+
+        if (!playerAllowed)
+            dropped(droppedByPlayerLimit, template);
+        else if (!buttonAllowed)
+            dropped(droppedByButtonLimit, template);
+
+        return buttonAllowed;
+    }
+
+    public void forget(HumanEntity player) {
+        BucketTable buckets = stripe(player.getEntityId());
+
+        synchronized (buckets) {
+            buckets.removePlayer(player.getEntityId());
+        }
+    }
+
+    private long buttonKey(String template, int page, int slot) {
+        long templateId = template != null ? templateIds.computeIfAbsent(template, k -> nextTemplateId.incrementAndGet() & TEMPLATE_IDS) : 0;
+        return templateId << 20 | (page & 0xFFFL) << 8 | slot & 0xFFL;
+    }
+
+    private BucketTable stripe(int entityId) {
+        return stripes[(entityId ^ entityId >>> 16) & STRIPES - 1];
+    }
+
+    public long getDroppedByPlayerLimit() {
+        return droppedByPlayerLimit.sum();
+    }
+
+    public long getDroppedByButtonLimit() {
+        return droppedByButtonLimit.sum();
+    }
+
+    public Map<String, Long> getDroppedByTemplate() {
+        Map<String, Long> dropped = new HashMap<>();
+        droppedByTemplate.forEach((template, count) -> dropped.put(template, count.sum()));
+        return dropped;
+    }
+
+    public void resetCounters() {
+        droppedByPlayerLimit.reset();
+        droppedByButtonLimit.reset();
+        droppedByTemplate.clear();
+    }
+
+    private void dropped(LongAdder counter, String template) {
+        counter.increment();
+
+        if (template != null)
+            droppedByTemplate.computeIfAbsent(template.toLowerCase(), k -> new LongAdder()).increment();
+    }
+
+    private static Limits readLimits(ConfigurationSection section, Limits def) {
+        if (section == null)
+            return def;
+
+        return new Limits(readLimit(section.getConfigurationSection("player"), def.getPlayer()), readLimit(section.getConfigurationSection("button"), def.getButton()));
+    }
+
+    private static Limit readLimit(ConfigurationSection section, Limit def) {
+        if (section == null)
+            return def;
+
+        return new Limit(section.getDouble("burst", def.getBurst()), section.getDouble("per_second", def.getPerSecond()));
+    }
+
+    //burst <= 0 means no limit
+    public record Limit(double getBurst, double getPerSecond) {
+    }
+
+    public record Limits(Limit getPlayer, Limit getButton) {
+    }
+
+    //Open addressing table of long keys with the bucket state in parallel primitive arrays, nothing is boxed or allocated per click
+    private static final class BucketTable {
+
+        private static final long EMPTY = 0;
+
+        private long[] keys;
+        private double[] tokens;
+        private long[] lastRefill;
+        private int size;
+
+        private BucketTable() {
+            clear();
+        }
+
+        private void clear() {
+            this.keys = new long[64];
+            this.tokens = new double[64];
+            this.lastRefill = new long[64];
+            this.size = 0;
+        }
+
+        private boolean take(long key, Limit limit, long now) {
+            if (limit.getBurst() <= 0)
+                return true;
+
+            //0 marks an empty slot, the key that would collide with it is moved out of the way
+            if (key == EMPTY)
+                key = Long.MIN_VALUE;
+
+            int index = find(key);
+
+            if (keys[index] != key) {
+                if ((size + 1) * 4 > keys.length * 3) {
+                    grow();
+                    index = find(key);
+                }
+
+                keys[index] = key;
+                tokens[index] = limit.getBurst();
+                lastRefill[index] = now;
+                size++;
+            }
+            else {
+                double refilled = (now - lastRefill[index]) / 1_000_000_000.0 * limit.getPerSecond();
+                tokens[index] = Math.min(limit.getBurst(), tokens[index] + refilled);
+                lastRefill[index] = now;
+            }
+
+            if (tokens[index] < 1)
+                return false;
+
+            tokens[index]--;
+            return true;
+        }
+
+        //Drops every bucket of the player, the table is rebuilt without them
+        private void removePlayer(int entityId) {
+            long[] oldKeys = keys;
+            double[] oldTokens = tokens;
+            long[] oldRefill = lastRefill;
+            boolean found = false;
+
+            for (long key : oldKeys)
+                if (key != EMPTY && (int) (key >>> 32) == entityId) {
+                    found = true;
+                    break;
+                }
+
+            if (!found)
+                return;
+
+            this.keys = new long[oldKeys.length];
+            this.tokens = new double[oldKeys.length];
+            this.lastRefill = new long[oldKeys.length];
+            this.size = 0;
+
+            for (int i = 0; i < oldKeys.length; i++)
+                if (oldKeys[i] != EMPTY && (int) (oldKeys[i] >>> 32) != entityId)
+                    insert(oldKeys[i], oldTokens[i], oldRefill[i]);
+        }
+
+        private int find(long key) {
+            int mask = keys.length - 1;
+            int index = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+
+            while (keys[index] != EMPTY && keys[index] != key)
+                index = (index + 1) & mask;
+
+            return index;
+        }
+
+        private void insert(long key, double tokens, long lastRefill) {
+            int index = find(key);
+            this.keys[index] = key;
+            this.tokens[index] = tokens;
+            this.lastRefill[index] = lastRefill;
+            size++;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            double[] oldTokens = tokens;
+            long[] oldRefill = lastRefill;
+
+            this.keys = new long[oldKeys.length * 2];
+            this.tokens = new double[oldKeys.length * 2];
+            this.lastRefill = new long[oldKeys.length * 2];
+            this.size = 0;
+
+            for (int i = 0; i < oldKeys.length; i++)
+                if (oldKeys[i] != EMPTY)
+                    insert(oldKeys[i], oldTokens[i], oldRefill[i]);
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Managers;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GuiTemplateData;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+//Parses every GUI file of every manager in parallel on a small worker pool.
+//Nothing in here touches inventories or GuiManager state, the results are handed back to the main thread through mainThread()
+public class GuiLoader {
+
+    private final Logger logger;
+    private final ExecutorService workers;
+    private final Executor mainThread;
+
+    public GuiLoader(JavaPlugin plugin, Executor mainThread) {
+        this(plugin, Math.max(1, Runtime.getRuntime().availableProcessors() - 1), mainThread);
+    }
+
+    //mainThread is where parsed templates are committed, the global region on Folia
+    public GuiLoader(JavaPlugin plugin, int threads, Executor mainThread) {
+        this.logger = plugin.getLogger();
+
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "AbstractGUIs-Loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.mainThread = mainThread;
+    }
+
+    //Results keep the order of the files on disk so that duplicate names resolve the same way the synchronous loader did
+    public CompletableFuture<List<GuiTemplateData>> parseAll(Collection<AbstractGUIManager> managers) {
+        Map<File, AbstractGUIManager> files = new LinkedHashMap<>();
+
+        for (AbstractGUIManager manager : managers)
+            for (File file : manager.collectGUIFiles())
+                files.put(file, manager);
+
+        return parse(files);
+    }
+
+    public CompletableFuture<List<GuiTemplateData>> parse(Map<File, AbstractGUIManager> files) {
+        List<CompletableFuture<GuiTemplateData>> futures = new ArrayList<>(files.size());
+
+        files.forEach((file, manager) -> futures.add(CompletableFuture.supplyAsync(() -> manager.parseGUI(file), workers).exceptionally(ex -> {
+            logger.log(Level.SEVERE, "Failed to parse GUI file " + file.getPath(), ex);
+            return null;
+        })));
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<GuiTemplateData> parsed = new ArrayList<>(futures.size());
+
+            for (CompletableFuture<GuiTemplateData> future : futures) {
+                GuiTemplateData data = future.join();
+
+                if (data != null)
+                    parsed.add(data);
+            }
+
+            return parsed;
+        });
+    }
+
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+}
@@ -1,37 +1,125 @@
 package com.deadshotmdf.spigot_abstract_GUIS.General.Managers;
 
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.RenderCache;
 import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GuiTemplateData;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.NavigationEntry;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.Material;
 import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+//Safe to call from several threads, which on Folia means the region threads players' clicks and opens arrive on.
+//Templates are published as an immutable map that's swapped as a whole, so lookups never lock and never see a half done reload.
+//Everything that touches a GUI's inventories is handed to the thread that owns it through the GuiScheduler
 public class GuiManager {
 
-    private final Map<String, GUI> guiTemplates;
-    private final Map<UUID, GUI> openGuis;
+    private volatile Map<String, GUI> guiTemplates;
+    //Which file each template came from, needed to know what to unregister when a file is deleted while hot reloading
+    private final Map<File, String> templateFiles;
+    private final Map<String, Integer> templateVersions;
+    private final OpenGuiRegistry openGuis;
     private final Set<AbstractGUIManager> managers;
+    private final GuiScheduler scheduler;
+    private final GuiLoader loader;
+    private final TemplateCache templateCache;
+    private final RefreshScheduler refreshScheduler;
+    private final ClickLimiter clickLimiter;
+    private final ActionPipeline actionPipeline;
+    private final SessionTracker sessions;
+    private final GuiMetrics metrics;
+    private final JavaPlugin plugin;
+    private final Logger logger;
+    private GuiWatcher watcher;
+    private Runnable cancelEviction;
+    private Runnable cancelLeakSweep;
+    private Runnable cancelMetricsFile;
+    //Where GUIs run their blocking work, virtual threads unless configured otherwise
+    private ExecutorService asyncExecutor;
+    private ItemStack loadingItem;
 
-    public GuiManager() {
-        this.guiTemplates = new HashMap<>();
-        this.openGuis = new HashMap<>();
-        this.managers = new LinkedHashSet<>();
+    //Opens requested while a reload is running, replayed right after the new templates are swapped in. Only the latest request per player is kept
+    private final Map<UUID, Consumer<Player>> pendingOpens;
+    //Files the watcher reported while a reload was running, hot reloaded once it's done. Guarded by pendingOpens
+    private final Set<File> pendingFiles;
+    private final Map<UUID, NavigationSession> navigation;
+    private volatile int navigationDepth;
+    private volatile int navigationLiveEntries;
+    private volatile int loadGeneration;
+    private volatile boolean loading;
+
+    public GuiManager(JavaPlugin plugin) {
+        this.guiTemplates = Map.of();
+        this.templateFiles = new ConcurrentHashMap<>();
+        this.templateVersions = new ConcurrentHashMap<>();
+        this.openGuis = new OpenGuiRegistry();
+        this.managers = new CopyOnWriteArraySet<>();
+        this.scheduler = new GuiScheduler(plugin);
+        this.loader = new GuiLoader(plugin, commitExecutor(plugin, scheduler));
+        this.templateCache = new TemplateCache(plugin);
+        this.refreshScheduler = new RefreshScheduler(plugin, scheduler);
+        this.clickLimiter = new ClickLimiter();
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.actionPipeline = new ActionPipeline(this, logger);
+        this.sessions = new SessionTracker(logger);
+        this.metrics = new GuiMetrics();
+        this.pendingOpens = new LinkedHashMap<>();
+        this.pendingFiles = new LinkedHashSet<>();
+        this.navigation = new ConcurrentHashMap<>();
+        this.navigationDepth = 16;
+        this.navigationLiveEntries = 1;
     }
 
-    public void registerGuiTemplate(String name, GUI gui) {
-        guiTemplates.put(name.toLowerCase(), gui);
+    //Registering over an existing template migrates every open session of it onto the new version instead of leaving them on stale elements
+    public synchronized void registerGuiTemplate(String name, GUI gui) {
+        String key = name.toLowerCase();
+        GUI old = guiTemplates.get(key);
+        prepareTemplate(key, gui);
+        publish(key, gui);
+        migrate(key, gui, old);
     }
 
-    public void unregisterGuiTemplate(String name) {
-        guiTemplates.remove(name.toLowerCase());
+    public synchronized void unregisterGuiTemplate(String name) {
+        String key = name.toLowerCase();
+        GUI old = guiTemplates.get(key);
+        publish(key, null);
+        retire(key, old);
     }
 
     public GUI getGuiTemplate(String name) {
         return guiTemplates.get(name != null ? name.toLowerCase() : "NULL");
     }
 
-    public void openGui(HumanEntity player, String guiName, GUI backGUI, Map<String, Object> args) {
+    //Opens a GUI as a fresh start, where the player came from is forgotten
+    public void openGui(HumanEntity player, String guiName, Map<String, Object> args) {
+        open(player, guiName, args, false);
+    }
+
+    //Opens a GUI on top of the one the player has open, going back returns to it
+    public void navigateTo(HumanEntity player, String guiName, Map<String, Object> args) {
+        open(player, guiName, args, true);
+    }
+
+    private void open(HumanEntity player, String guiName, Map<String, Object> args, boolean remember) {
+        if(loading){
+            queueOpen(player, online -> open(online, guiName, args, remember));
+            return;
+        }
+
         GUI gui = getGuiTemplate(guiName);
 
         if(gui == null){
@@ -39,46 +127,574 @@ public class GuiManager {
             return;
         }
 
-        commenceOpen(player, gui, backGUI, args);
+        if(remember)
+            navigateTo(player, gui, args);
+        else
+            commenceOpen(player, gui, args);
     }
 
-    public void commenceOpen(HumanEntity player, GUI gui, GUI backGUI, Map<String, Object> args){
-        UUID uuid = player.getUniqueId();
+    //Call these from the thread that owns the player, the player's region on Folia
+    public void commenceOpen(HumanEntity player, GUI gui, Map<String, Object> args){
+        if(gui == null)
+            return;
 
+        long start = metrics.start();
+        clearNavigation(player.getUniqueId());
+        show(player, gui.createInstance(player.getUniqueId(), args != null ? args : new HashMap<>()), 0, "openGui", start);
+    }
+
+    public void navigateTo(HumanEntity player, GUI gui, Map<String, Object> args){
         if(gui == null)
             return;
 
-        GUI newGUI = gui.createInstance(uuid, backGUI, args != null ? args : new HashMap<>());
+        long start = metrics.start();
+        UUID uuid = player.getUniqueId();
+        GUI current = openGuis.get(uuid);
+
+        if(current != null){
+            int page = current.getPageByInventory(player.getOpenInventory().getTopInventory());
+            getNavigation(uuid).push(new NavigationEntry(current.getTemplateName(), Math.max(0, page), current.getArgs()), current);
+        }
+
+        show(player, gui.createInstance(uuid, args != null ? args : new HashMap<>()), 0, "navigateTo", start);
+    }
+
+    //Returns to the previous screen on the page the player left it on. false when there's nowhere to go back to
+    public boolean navigateBack(HumanEntity player){
+        NavigationSession session = navigation.get(player.getUniqueId());
+        NavigationSession.Frame frame = session != null ? session.pop() : null;
+
+        if(frame == null)
+            return false;
+
+        long start = metrics.start();
+        GUI gui = restore(player.getUniqueId(), frame);
+        GUI kept = frame.getInstance();
+
+        //The kept instance was stale and got rebuilt
+        if(kept != null && kept != gui)
+            sessions.end(kept, player.getUniqueId());
+
+        if(gui == null){
+            player.sendMessage(ChatColor.RED + "GUI not found: " + frame.getEntry().getTemplateName());
+            return false;
+        }
+
+        show(player, gui, frame.getEntry().getPage(), gui != kept ? "navigateBack" : null, start);
+        return true;
+    }
+
+    //The screen the player would go back to, without creating a session for them
+    public NavigationEntry peekBack(UUID uuid){
+        NavigationSession session = navigation.get(uuid);
+        return session != null ? session.peek() : null;
+    }
+
+    public NavigationSession getNavigation(UUID uuid){
+        return navigation.computeIfAbsent(uuid, k -> new NavigationSession(navigationDepth, navigationLiveEntries, gui -> sessions.end(gui, uuid)));
+    }
+
+    //Ends the sessions of every GUI the player's navigation was keeping
+    public void clearNavigation(UUID uuid){
+        NavigationSession session = navigation.remove(uuid);
+
+        if(session != null)
+            session.clear();
+    }
+
+    //maxDepth caps how many screens back a player can go, liveEntries how many of those keep their GUI instead of being rebuilt
+    public void configureNavigation(int maxDepth, int liveEntries){
+        this.navigationDepth = Math.max(1, maxDepth);
+        this.navigationLiveEntries = Math.max(0, liveEntries);
+    }
+
+    //The kept GUI if it's still there and up to date with its template (or can be rebased onto it), otherwise a new one from the template
+    private GUI restore(UUID uuid, NavigationSession.Frame frame){
+        NavigationEntry entry = frame.getEntry();
+        GUI instance = frame.getInstance();
+        GUI template = getGuiTemplate(entry.getTemplateName());
+
+        if(template == null)
+            return entry.getTemplateName() == null ? instance : null;
+
+        if(instance != null && (instance == template || !instance.isShared() && (instance.getTemplateVersion() >= template.getTemplateVersion() || instance.rebase(template))))
+            return instance;
+
+        return template.createInstance(uuid, entry.getArgs() != null ? entry.getArgs() : new HashMap<>());
+    }
+
+    //origin is how a newly created instance was opened, null for one that was already tracked.
+    //start is taken before the instance was created or restored, COMMENCE_OPEN covers building it too
+    private void show(HumanEntity player, GUI gui, int page, String origin, long start){
+        UUID uuid = player.getUniqueId();
+        scheduler.checkOwner(uuid, "open");
+
+        if(origin != null)
+            sessions.track(gui, uuid, origin);
 
         try{removeOpenGui(player);}
         catch (Throwable ignored){}
 
-        newGUI.open(player, 0, true);
-        openGuis.put(uuid, newGUI);
+        gui.open(player, Math.max(0, Math.min(page, gui.getPageCount() - 1)), true);
+        openGuis.put(uuid, gui);
+        metrics.record(GuiMetrics.Op.COMMENCE_OPEN, GuiMetrics.templateOf(gui), start);
     }
 
     public GUI getOpenGui(UUID uuid) {
         return openGuis.get(uuid);
     }
 
+    //Ends the session of the GUI the player had open, unless their navigation keeps it to come back to.
+    //Also cancels the button actions the player still had running in the GUI
     public void removeOpenGui(HumanEntity player) {
-        openGuis.remove(player.getUniqueId());
+        UUID uuid = player.getUniqueId();
+        GUI previous = openGuis.remove(uuid);
+        actionPipeline.cancel(uuid);
+
+        NavigationSession session = navigation.get(uuid);
+
+        if(previous != null && (session == null || !session.holds(previous)))
+            sessions.end(previous, uuid);
+    }
+
+    public SessionTracker getSessionTracker(){
+        return sessions;
+    }
+
+    public GuiMetrics getMetrics(){
+        return metrics;
+    }
+
+    //Every intervalSeconds the metrics are snapshotted and written to the file as JSON off the main thread, 0 or less only keeps them in memory
+    public void startMetricsFile(File file, long intervalSeconds){
+        if(cancelMetricsFile != null){
+            cancelMetricsFile.run();
+            cancelMetricsFile = null;
+        }
+
+        if(intervalSeconds <= 0 || !metrics.isEnabled())
+            return;
+
+        long period = intervalSeconds * 20;
+        cancelMetricsFile = scheduler.runTimer(() -> getAsyncExecutor().execute(() -> {
+            try{metrics.writeTo(file.toPath());}
+            catch (IOException e){logger.warning("Could not write GUI metrics to " + file.getName() + ": " + e.getMessage());}
+        }), period, period);
+    }
+
+    //Checks every leakAfterMillis / 4, but never more often than every 10 seconds, for ended GUI instances that are still reachable
+    public void startLeakDetection(boolean enabled, long leakAfterMillis){
+        sessions.configure(enabled, leakAfterMillis);
+
+        if(cancelLeakSweep != null){
+            cancelLeakSweep.run();
+            cancelLeakSweep = null;
+        }
+
+        if(!enabled)
+            return;
+
+        long period = Math.max(200, leakAfterMillis / 4 / 50);
+        cancelLeakSweep = scheduler.runTimer(sessions::sweep, period, period);
     }
 
     public void addManager(AbstractGUIManager manager){
         this.managers.add(manager);
     }
 
-    public void reloadConfig(){
-        Bukkit.getOnlinePlayers().forEach(HumanEntity::closeInventory);
-        openGuis.clear();
-        guiTemplates.clear();
-        this.managers.forEach(manager -> {
-            manager.onReload();
-            manager.loadGUIsRecursive();
+    public TemplateCache getTemplateCache(){
+        return templateCache;
+    }
+
+    public GuiScheduler getScheduler(){
+        return scheduler;
+    }
+
+    public RefreshScheduler getRefreshScheduler(){
+        return refreshScheduler;
+    }
+
+    public ClickLimiter getClickLimiter(){
+        return clickLimiter;
+    }
+
+    public ActionPipeline getActionPipeline(){
+        return actionPipeline;
+    }
+
+    //"virtual" gives every task its own virtual thread, "pool" a fixed pool of the given size
+    public void configureAsync(String executor, int threads, ItemStack loadingItem){
+        if(asyncExecutor != null)
+            asyncExecutor.shutdown();
+
+        if("pool".equalsIgnoreCase(executor)){
+            AtomicInteger count = new AtomicInteger();
+            asyncExecutor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+                Thread thread = new Thread(runnable, "AbstractGUIs-Async-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        else
+            asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+        this.loadingItem = loadingItem;
+    }
+
+    public Executor getAsyncExecutor(){
+        if(asyncExecutor == null)
+            configureAsync("virtual", 0, loadingItem);
+
+        return asyncExecutor;
+    }
+
+    //The global thread, the main thread anywhere but Folia. Use getScheduler().executorFor(player) for work on a player's GUI
+    public Executor getMainThreadExecutor(){
+        return scheduler.global();
+    }
+
+    public ItemStack getLoadingItem(){
+        if(loadingItem == null)
+            loadingItem = new ItemStack(Material.GRAY_STAINED_GLASS_PANE);
+
+        return loadingItem.clone();
+    }
+
+    public boolean isLoading(){
+        return loading;
+    }
+
+    //Runs the action for the player once the templates currently being loaded are in place, or right away if nothing is loading
+    public void queueOpen(HumanEntity player, Consumer<Player> action){
+        synchronized(pendingOpens){
+            if(loading){
+                pendingOpens.put(player.getUniqueId(), action);
+                return;
+            }
+        }
+
+        if(player instanceof Player online)
+            action.accept(online);
+    }
+
+    //Parsing happens on the loader's worker pool, the completed templates replace the old ones in a single main thread step.
+    //Open sessions are migrated onto the new versions, only sessions of templates that no longer exist get closed.
+    //The returned future completes on the main thread after the swap
+    public CompletableFuture<Void> reloadConfig(){
+        int generation = ++loadGeneration;
+        loading = true;
+        long start = System.currentTimeMillis();
+
+        this.managers.forEach(AbstractGUIManager::onReload);
+        templateCache.resetCounters();
+        RenderCache.clear();
+
+        return loader.parseAll(managers).thenApply(parsed -> {
+            templateCache.pruneMissing();
+            return parsed;
+        }).thenAcceptAsync(parsed -> {
+            if(generation == loadGeneration)
+                commitTemplates(parsed, start);
+        }, loader.mainThread()).whenComplete((ignored, ex) -> {
+            if(ex == null)
+                return;
+
+            logger.log(Level.SEVERE, "Failed to reload GUIs", ex);
+
+            //Nothing was swapped in, the old templates stay but opens must not wait for a load that will never finish
+            if(generation == loadGeneration)
+                finishLoading(false);
         });
     }
 
+    //Load results are committed on the global thread. Once the plugin is disabled the commit is rejected instead of silently dropped,
+    //so the load still completes (exceptionally) and loading doesn't stay stuck
+    private static Executor commitExecutor(JavaPlugin plugin, GuiScheduler scheduler){
+        return task -> {
+            if(!plugin.isEnabled())
+                throw new RejectedExecutionException("Plugin is disabled");
+
+            scheduler.runGlobal(task);
+        };
+    }
+
+    private void commitTemplates(List<GuiTemplateData> parsed, long start){
+        long parsedAt = System.currentTimeMillis();
+        Map<String, GUI> templates = new HashMap<>();
+
+        for(GuiTemplateData data : parsed){
+            try{templates.put(data.getName(), data.getManager().buildGUI(data));}
+            catch (Throwable ex){logger.log(Level.SEVERE, "Failed to build GUI " + data.getName(), ex);}
+        }
+
+        Map<String, GUI> previous;
+
+        //The whole set of templates becomes visible at once
+        synchronized(this){
+            previous = new HashMap<>(guiTemplates);
+            templates.forEach(this::prepareTemplate);
+            guiTemplates = Map.copyOf(templates);
+        }
+
+        templates.forEach((name, gui) -> migrate(name, gui, previous.remove(name)));
+        previous.forEach(this::retire);
+
+        templateFiles.clear();
+        parsed.forEach(data -> templateFiles.put(normalize(data.getFile()), data.getName()));
+        notifyManagers(parsed, Map.of(), true);
+
+        logger.info("Loaded " + templates.size() + " GUIs, parsed in " + (parsedAt - start) + "ms, committed in " + (System.currentTimeMillis() - parsedAt) + "ms");
+        logger.info("Template cache: " + templateCache.getHits() + " hits, " + templateCache.getMisses() + " misses");
+
+        finishLoading(true);
+    }
+
+    //Every manager hears about its own templates, managers that had nothing loaded still get told on a full reload so they can drop their old state
+    private void notifyManagers(List<GuiTemplateData> loaded, Map<AbstractGUIManager, Set<String>> removed, boolean full){
+        Map<AbstractGUIManager, Set<String>> loadedByManager = new HashMap<>();
+        loaded.forEach(data -> loadedByManager.computeIfAbsent(data.getManager(), k -> new HashSet<>()).add(data.getName()));
+
+        for(AbstractGUIManager manager : managers){
+            Set<String> managerLoaded = loadedByManager.getOrDefault(manager, Set.of());
+            Set<String> managerRemoved = removed.getOrDefault(manager, Set.of());
+
+            if(!full && managerLoaded.isEmpty() && managerRemoved.isEmpty())
+                continue;
+
+            try{manager.onTemplatesCommitted(managerLoaded, managerRemoved, full);}
+            catch (Throwable ex){logger.log(Level.SEVERE, "Failed to notify " + manager.getClass().getSimpleName() + " of loaded GUIs", ex);}
+        }
+    }
+
+    //Ends a load, the opens queued meanwhile are replayed unless it failed. Files changed meanwhile are hot reloaded either way,
+    //the load may have read them before the change
+    private void finishLoading(boolean replay){
+        List<Map.Entry<UUID, Consumer<Player>>> pending;
+        List<File> files;
+
+        synchronized(pendingOpens){
+            loading = false;
+            pending = new ArrayList<>(pendingOpens.entrySet());
+            pendingOpens.clear();
+            files = new ArrayList<>(pendingFiles);
+            pendingFiles.clear();
+        }
+
+        if(!files.isEmpty())
+            reloadFiles(files);
+
+        if(!replay)
+            return;
+
+        for(Map.Entry<UUID, Consumer<Player>> entry : pending){
+            Player player = Bukkit.getPlayer(entry.getKey());
+
+            if(player != null && player.isOnline())
+                scheduler.runFor(player, () -> entry.getValue().accept(player));
+        }
+    }
+
+    //Starts watching every manager's folder, changed files are re-parsed and swapped in one by one without a full reload
+    public void startWatching(long debounceMillis){
+        if(watcher != null)
+            return;
+
+        try{
+            watcher = new GuiWatcher(this::reloadFiles, scheduler.global(), logger, debounceMillis);
+            managers.forEach(manager -> watcher.watch(manager.getBasePath()));
+            watcher.start();
+            logger.info("Watching GUI folders for changes");
+        }
+        catch (IOException e){
+            watcher = null;
+            logger.warning("Could not start watching GUI folders: " + e.getMessage());
+        }
+    }
+
+    //Every idleMillis / 100 (at least once a second), drops the inventories of pages that weren't viewed for idleMillis. Covers shared templates and open sessions.
+    //Per player sessions are evicted on their player's thread
+    public void startPageEviction(long idleMillis){
+        if(cancelEviction != null || idleMillis <= 0)
+            return;
+
+        long period = Math.max(20, idleMillis / 100);
+        cancelEviction = scheduler.runTimer(() -> {
+            Set<GUI> guis = Collections.newSetFromMap(new IdentityHashMap<>());
+            guis.addAll(guiTemplates.values());
+            guis.addAll(openGuis.distinct());
+
+            int evicted = 0;
+            for(GUI gui : guis){
+                if(gui.isShared() || gui.getViewer() == null)
+                    evicted += gui.evictPages(idleMillis);
+                else
+                    scheduler.runFor(gui.getViewer(), () -> gui.evictPages(idleMillis));
+            }
+
+            if(evicted > 0)
+                logger.fine("Evicted " + evicted + " idle GUI pages");
+        }, period, period);
+    }
+
+    //Re-parses only the given files (directories are rescanned) and replaces only the templates they produce.
+    //Players in any other GUI are left alone. While a full reload is running the files are held back and reloaded once it's done
+    public void reloadFiles(Collection<File> changed){
+        synchronized(pendingOpens){
+            if(loading){
+                pendingFiles.addAll(changed);
+                return;
+            }
+        }
+
+        Map<File, AbstractGUIManager> toParse = new LinkedHashMap<>();
+        Set<File> deleted = new HashSet<>();
+
+        for(File file : changed){
+            File normalized = normalize(file);
+            AbstractGUIManager manager = findManager(normalized);
+
+            if(normalized.isDirectory()){
+                if(manager != null)
+                    manager.collectGUIFiles(normalized).forEach(guiFile -> toParse.put(normalize(guiFile), manager));
+
+                templateFiles.keySet().stream().filter(known -> known.toPath().startsWith(normalized.toPath()) && !known.exists()).forEach(deleted::add);
+            }
+
+            else if(normalized.isFile() && normalized.getName().endsWith(".yml")){
+                if(manager != null)
+                    toParse.put(normalized, manager);
+            }
+
+            else
+                templateFiles.keySet().stream().filter(known -> known.toPath().startsWith(normalized.toPath())).forEach(deleted::add);
+        }
+
+        if(toParse.isEmpty() && deleted.isEmpty())
+            return;
+
+        int generation = loadGeneration;
+        long start = System.currentTimeMillis();
+
+        loader.parse(toParse).thenAcceptAsync(parsed -> {
+            if(generation == loadGeneration && !loading)
+                commitFiles(parsed, deleted, start);
+        }, loader.mainThread()).whenComplete((ignored, ex) -> {
+            if(ex != null)
+                logger.log(Level.SEVERE, "Failed to hot reload GUIs", ex);
+        });
+    }
+
+    private void commitFiles(List<GuiTemplateData> parsed, Set<File> deleted, long start){
+        int replaced = 0;
+        Map<AbstractGUIManager, Set<String>> removed = new HashMap<>();
+
+        for(File file : deleted){
+            templateCache.invalidate(file);
+            String name = templateFiles.remove(file);
+
+            if(name != null && !templateFiles.containsValue(name)){
+                GUI old = guiTemplates.get(name);
+                publish(name, null);
+                retire(name, old);
+
+                AbstractGUIManager manager = findManager(file);
+                if(manager != null)
+                    removed.computeIfAbsent(manager, k -> new HashSet<>()).add(name);
+            }
+        }
+
+        for(GuiTemplateData data : parsed){
+            GUI gui;
+
+            try{gui = data.getManager().buildGUI(data);}
+            catch (Throwable ex){
+                logger.log(Level.SEVERE, "Failed to build GUI " + data.getName(), ex);
+                continue;
+            }
+
+            registerGuiTemplate(data.getName(), gui);
+            templateFiles.put(normalize(data.getFile()), data.getName());
+            replaced++;
+        }
+
+        notifyManagers(parsed, removed, false);
+        logger.info("Hot reloaded " + replaced + " GUIs and removed " + deleted.size() + " in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    //Gives the template its new version. Per player templates are only ever copied from after this, so their elements are frozen
+    private void prepareTemplate(String name, GUI gui){
+        gui.setTemplate(name, templateVersions.merge(name, 1, Integer::sum));
+
+        if(!gui.isShared())
+            gui.freeze();
+    }
+
+    //Copy on write, readers keep using the map they already have
+    private synchronized void publish(String name, GUI gui){
+        Map<String, GUI> templates = new HashMap<>(guiTemplates);
+
+        if(gui != null)
+            templates.put(name, gui);
+        else
+            templates.remove(name);
+
+        guiTemplates = Map.copyOf(templates);
+    }
+
+    //Rebases every open session of the old template onto the new one in place.
+    //A shared template hands its inventories to the new one, per player sessions keep their own inventories and state and only get their changed slots rewritten,
+    //each on its own player's thread. Sessions that can't be rebased (different size, title or GUI type) are closed
+    private void migrate(String name, GUI gui, GUI old){
+        if(old == null || old == gui)
+            return;
+
+        int version = gui.getTemplateVersion();
+
+        if(old.isShared()){
+            if(gui.adoptInventories(old))
+                openGuis.replace(old, gui);
+            else
+                old.forceClose();
+        }
+
+        for(GUI session : openGuis.byTemplate(name))
+            if(!session.isShared() && session.getTemplateVersion() < version)
+                scheduler.runFor(session.getViewer(), () -> {
+                    if(!session.rebase(gui))
+                        session.forceClose();
+                });
+    }
+
+    private void retire(String name, GUI old){
+        if(old == null)
+            return;
+
+        old.forceClose();
+
+        for(GUI session : openGuis.byTemplate(name))
+            session.forceClose();
+    }
+
+    private AbstractGUIManager findManager(File file){
+        AbstractGUIManager found = null;
+        int longest = -1;
+
+        for(AbstractGUIManager manager : managers){
+            Path base = normalize(manager.getBasePath()).toPath();
+
+            if(file.toPath().startsWith(base) && base.getNameCount() > longest){
+                found = manager;
+                longest = base.getNameCount();
+            }
+        }
+
+        return found;
+    }
+
+    private static File normalize(File file){
+        return file.toPath().toAbsolutePath().normalize().toFile();
+    }
+
     public void saveAll(){
         this.managers.forEach(manager -> {
             try{manager.saveInformation();}
@@ -86,15 +702,55 @@ public class GuiManager {
         });
     }
 
+    public void shutdown(){
+        if(watcher != null)
+            watcher.stop();
+
+        if(cancelEviction != null)
+            cancelEviction.run();
+
+        if(cancelLeakSweep != null)
+            cancelLeakSweep.run();
+
+        if(cancelMetricsFile != null)
+            cancelMetricsFile.run();
+
+        actionPipeline.cancelAll();
+
+        loader.shutdown();
+
+        if(asyncExecutor != null)
+            asyncExecutor.shutdownNow();
+
+        synchronized(pendingOpens){
+            pendingOpens.clear();
+            pendingFiles.clear();
+        }
+
+        navigation.clear();
+        sessions.clear();
+        refreshScheduler.clear();
+    }
+
+    //Each matching GUI is refreshed once, shared GUIs included, no matter how many players have it open
     public void refreshInventories(Class<?>... cls) {
         if(cls.length == 0)
             return;
 
-        for (GUI gui : openGuis.values())
-            for(Class<?> cl : cls)
-                if (cl.isAssignableFrom(gui.getClass()))
-                    gui.refreshInventory();
+        Set<GUI> matching = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for(Class<?> cl : cls)
+            matching.addAll(openGuis.byType(cl));
+
+        matching.forEach(GUI::requestRefresh);
     }
 
-}
+    public void refreshTemplate(String name) {
+        openGuis.byTemplate(name).forEach(GUI::requestRefresh);
+    }
 
+    public OpenGuiRegistry getOpenGuis(){
+        return openGuis;
+    }
+
+}
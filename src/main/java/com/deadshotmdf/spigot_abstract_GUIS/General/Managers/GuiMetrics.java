@@ -0,0 +1,225 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Managers;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.ButtonIdentifier;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+//Counts and latency histograms of the GUI hot paths, per template and per button type (its @ButtonIdentifier).
+//Everything is a LongAdder, so threads recording the same template don't contend on one counter.
+//Disabled, start() is a single volatile read and record() returns right away, nothing is looked up or allocated.
+//Histograms use power of two buckets in microseconds, percentiles are the upper bound of the bucket they fall in
+public class GuiMetrics {
+
+    //Returned by start() while disabled, record() ignores it
+    public static final long OFF = Long.MIN_VALUE;
+    //Bucket 0 is under 1µs, bucket i is [2^(i-1), 2^i) µs, the last one takes everything from ~4s up
+    private static final int BUCKETS = 24;
+    private static final ClassValue<String> BUTTON_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            ButtonIdentifier identifier = type.getAnnotation(ButtonIdentifier.class);
+            return identifier != null ? identifier.value() : type.getSimpleName();
+        }
+    };
+
+    private final Map<String, Timer>[] timers;
+    private volatile boolean enabled;
+
+    @SuppressWarnings("unchecked")
+    public GuiMetrics() {
+        this.timers = new Map[Op.values().length];
+
+        for (int i = 0; i < timers.length; i++)
+            timers[i] = new ConcurrentHashMap<>();
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long start() {
+        return enabled ? System.nanoTime() : OFF;
+    }
+
+    public void record(Op op, String key, long start) {
+        if (start == OFF)
+            return;
+
+        long nanos = System.nanoTime() - start;
+        Map<String, Timer> byKey = timers[op.ordinal()];
+        String name = key != null ? key : "unknown";
+        Timer timer = byKey.get(name);
+
+        if (timer == null)
+            timer = byKey.computeIfAbsent(name, k -> new Timer());
+
+        timer.record(nanos);
+    }
+
+    public static String templateOf(GUI gui) {
+        return gui == null ? null : gui.getTemplateName() != null ? gui.getTemplateName() : gui.getClass().getSimpleName();
+    }
+
+    public static String buttonOf(Object element) {
+        return element != null ? BUTTON_NAMES.get(element.getClass()) : null;
+    }
+
+    //Sorted by total time spent, most expensive first
+    public List<Snapshot> snapshot(Op op) {
+        List<Snapshot> snapshots = new ArrayList<>();
+        timers[op.ordinal()].forEach((key, timer) -> snapshots.add(timer.snapshot(op, key)));
+        snapshots.sort(Comparator.comparingLong(Snapshot::getTotalNanos).reversed());
+        return snapshots;
+    }
+
+    public void reset() {
+        for (Map<String, Timer> byKey : timers)
+            byKey.clear();
+    }
+
+    //{"time": ..., "metrics": [{"op": .., "key": .., "count": .., "total_us": .., "mean_us": .., "p50_us": .., "p99_us": .., "max_us": .., "buckets": [..]}, ..]}
+    public String toJson() {
+        StringBuilder json = new StringBuilder(4096).append("{\"time\":").append(System.currentTimeMillis()).append(",\"metrics\":[");
+        boolean first = true;
+
+        for (Op op : Op.values())
+            for (Snapshot snapshot : snapshot(op)) {
+                if (!first)
+                    json.append(',');
+
+                first = false;
+                json.append("{\"op\":\"").append(op.getName()).append("\",\"key\":\"").append(escape(snapshot.getKey()))
+                        .append("\",\"count\":").append(snapshot.getCount())
+                        .append(",\"total_us\":").append(snapshot.getTotalNanos() / 1000)
+                        .append(",\"mean_us\":").append(snapshot.getMeanMicros())
+                        .append(",\"p50_us\":").append(snapshot.percentileMicros(0.5))
+                        .append(",\"p99_us\":").append(snapshot.percentileMicros(0.99))
+                        .append(",\"max_us\":").append(snapshot.getMaxNanos() / 1000)
+                        .append(",\"buckets\":").append(Arrays.toString(snapshot.getBuckets()).replace(" ", ""))
+                        .append('}');
+            }
+
+        return json.append("]}").toString();
+    }
+
+    //Written next to the target and moved over it, readers never see half a file
+    public void writeTo(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temp, toJson(), StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static int bucket(long nanos) {
+        long micros = nanos / 1000;
+        return micros <= 0 ? 0 : Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(micros));
+    }
+
+    public enum Op {
+
+        //GUIListener handling an inventory event, per template
+        EVENT("event"),
+        //A button's onClick, per @ButtonIdentifier
+        BUTTON("button"),
+        //GuiManager opening a GUI for a player, instance creation included, per template
+        COMMENCE_OPEN("commence_open"),
+        //AbstractGUI.open, also every page change, per template
+        OPEN("open"),
+        REFRESH("refresh"),
+        //Template loading: parsing a file off the main thread and building the GUI from it on the main thread
+        PARSE("parse"),
+        BUILD("build");
+
+        private final String name;
+
+        Op(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static Op byName(String name) {
+            for (Op op : values())
+                if (op.name.equalsIgnoreCase(name))
+                    return op;
+
+            return null;
+        }
+    }
+
+    private static final class Timer {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        private Timer() {
+            for (int i = 0; i < BUCKETS; i++)
+                buckets[i] = new LongAdder();
+        }
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            buckets[bucket(nanos)].increment();
+        }
+
+        private Snapshot snapshot(Op op, String key) {
+            long[] counts = new long[BUCKETS];
+
+            for (int i = 0; i < BUCKETS; i++)
+                counts[i] = buckets[i].sum();
+
+            return new Snapshot(op, key, count.sum(), totalNanos.sum(), maxNanos.get(), counts);
+        }
+    }
+
+    //The counters are read one after the other while others may still record, so they can be off by the clicks that happened in between
+    public record Snapshot(Op getOp, String getKey, long getCount, long getTotalNanos, long getMaxNanos, long[] getBuckets) {
+
+        public long getMeanMicros() {
+            return getCount > 0 ? getTotalNanos / getCount / 1000 : 0;
+        }
+
+        public long percentileMicros(double percentile) {
+            long total = 0;
+
+            for (long count : getBuckets)
+                total += count;
+
+            long target = (long) Math.ceil(total * percentile);
+            long seen = 0;
+
+            for (int i = 0; i < getBuckets.length; i++) {
+                seen += getBuckets[i];
+
+                if (seen >= target && seen > 0)
+                    return i == 0 ? 1 : 1L << i;
+            }
+
+            return getMaxNanos / 1000;
+        }
+    }
+
+}
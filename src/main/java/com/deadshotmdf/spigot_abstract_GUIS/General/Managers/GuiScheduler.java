@@ -0,0 +1,161 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Managers;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+//Runs GUI work on the thread that owns it. On Paper and Spigot that's always the main thread.
+//On Folia a player's GUI belongs to the region the player is in and goes through the player's entity scheduler,
+//templates, shared GUIs and reloads belong to the global region. Work that is already on the right thread runs right away.
+//With confinement checks on, GUIs report every call made from a thread that doesn't own them, meant for testing
+public class GuiScheduler {
+
+    private static final boolean FOLIA = detectFolia();
+    //Stack traces are logged once per place a violation comes from, after that they're only counted
+    private static final int MAX_REPORTED = 64;
+
+    private final JavaPlugin plugin;
+    private final Logger logger;
+    private final Executor global;
+    private final LongAdder violations;
+    private final Set<String> reported;
+    private volatile boolean checkConfinement;
+
+    public GuiScheduler(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.global = this::runGlobal;
+        this.violations = new LongAdder();
+        this.reported = ConcurrentHashMap.newKeySet();
+    }
+
+    public static boolean isFolia() {
+        return FOLIA;
+    }
+
+    public Executor global() {
+        return global;
+    }
+
+    public void runGlobal(Runnable task) {
+        if (isGlobalThread())
+            task.run();
+        else if (!plugin.isEnabled())
+            return;
+        else if (FOLIA)
+            Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+        else
+            Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    //Always waits for the next tick, even when called from the global thread. Used to coalesce work
+    public void runGlobalNextTick(Runnable task) {
+        if (!plugin.isEnabled())
+            return;
+
+        if (FOLIA)
+            Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+        else
+            Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    //A null player means the work isn't tied to anyone and runs globally. Work for a player that went offline is dropped
+    public void runFor(UUID player, Runnable task) {
+        if (player == null) {
+            runGlobal(task);
+            return;
+        }
+
+        Player online = Bukkit.getPlayer(player);
+
+        if (online != null)
+            runFor(online, task);
+    }
+
+    public void runFor(Player player, Runnable task) {
+        if (!FOLIA) {
+            runGlobal(task);
+            return;
+        }
+
+        if (Bukkit.isOwnedByCurrentRegion(player))
+            task.run();
+        else if (plugin.isEnabled())
+            player.getScheduler().execute(plugin, task, null, 1L);
+    }
+
+    public Executor executorFor(UUID player) {
+        return player == null ? global : task -> runFor(player, task);
+    }
+
+    //Repeats globally, the returned Runnable cancels it
+    public Runnable runTimer(Runnable task, long delayTicks, long periodTicks) {
+        if (FOLIA) {
+            ScheduledTask scheduled = Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, ignored -> task.run(), Math.max(1, delayTicks), Math.max(1, periodTicks));
+            return scheduled::cancel;
+        }
+
+        BukkitTask scheduled = Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+        return scheduled::cancel;
+    }
+
+    public boolean isGlobalThread() {
+        return FOLIA ? Bukkit.isGlobalTickThread() : Bukkit.isPrimaryThread();
+    }
+
+    //Whether the current thread may touch the GUIs of this player, or the global ones for null
+    public boolean isOwner(UUID player) {
+        if (!FOLIA || player == null)
+            return isGlobalThread();
+
+        Player online = Bukkit.getPlayer(player);
+        return online == null || Bukkit.isOwnedByCurrentRegion(online);
+    }
+
+    public void setCheckConfinement(boolean checkConfinement) {
+        this.checkConfinement = checkConfinement;
+    }
+
+    public boolean isCheckConfinement() {
+        return checkConfinement;
+    }
+
+    //Free when checks are off, which is the default
+    public void checkOwner(UUID player, String what) {
+        if (!checkConfinement || isOwner(player))
+            return;
+
+        violations.increment();
+        IllegalStateException trace = new IllegalStateException(what + " called from " + Thread.currentThread().getName() + (player != null ? " for player " + player : " for a global GUI"));
+        StackTraceElement[] stack = trace.getStackTrace();
+        String origin = what + "@" + (stack.length > 2 ? stack[2] : "unknown");
+
+        if (reported.size() < MAX_REPORTED && reported.add(origin))
+            logger.log(Level.WARNING, "GUI used from a thread that doesn't own it", trace);
+    }
+
+    public long getViolations() {
+        return violations.sum();
+    }
+
+    private static boolean detectFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        }
+        catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Managers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+//Watches the GUI folders of every manager and reports the files that changed once the folder has been quiet for debounceMillis.
+//Editors tend to write a file several times per save, all of those end up in a single batch.
+//Created, modified and deleted paths are all reported the same way, a path that is a directory means "rescan this folder"
+public class GuiWatcher implements Runnable {
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories;
+    private final Set<File> pending;
+    private final Consumer<Set<File>> onChange;
+    private final Executor mainThread;
+    private final long debounceMillis;
+    private final Logger logger;
+    private Thread thread;
+    private volatile boolean running;
+
+    public GuiWatcher(Consumer<Set<File>> onChange, Executor mainThread, Logger logger, long debounceMillis) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.directories = new HashMap<>();
+        this.pending = new LinkedHashSet<>();
+        this.onChange = onChange;
+        this.mainThread = mainThread;
+        this.debounceMillis = Math.max(50, debounceMillis);
+        this.logger = logger;
+    }
+
+    public synchronized void watch(File directory) {
+        if (!directory.isDirectory())
+            return;
+
+        try {
+            Path path = directory.toPath().toAbsolutePath().normalize();
+            directories.put(path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), path);
+        }
+        catch (IOException e) {
+            logger.warning("Could not watch " + directory.getPath() + ": " + e.getMessage());
+            return;
+        }
+
+        File[] files = directory.listFiles();
+
+        if (files == null)
+            return;
+
+        for (File file : files)
+            if (file.isDirectory())
+                watch(file);
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this, "AbstractGUIs-Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+
+        try {watchService.close();}
+        catch (IOException ignored) {}
+
+        if (thread != null)
+            thread.interrupt();
+    }
+
+    @Override
+    public void run() {
+        long deadline = 0;
+
+        while (running) {
+            WatchKey key;
+
+            try {
+                key = pending.isEmpty() ? watchService.take() : watchService.poll(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            if (key == null) {
+                if (System.currentTimeMillis() >= deadline)
+                    flush();
+
+                continue;
+            }
+
+            collect(key);
+            deadline = System.currentTimeMillis() + debounceMillis;
+        }
+    }
+
+    private void collect(WatchKey key) {
+        Path directory;
+
+        synchronized (this) {
+            directory = directories.get(key);
+        }
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (directory == null)
+                break;
+
+            //Events were dropped, rescan the whole folder instead
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                pending.add(directory.toFile());
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+            File file = path.toFile();
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && file.isDirectory()) {
+                watch(file);
+                pending.add(file);
+            }
+
+            else if (file.isDirectory() || file.getName().endsWith(".yml") || event.kind() == StandardWatchEventKinds.ENTRY_DELETE)
+                pending.add(file);
+        }
+
+        if (!key.reset()) {
+            synchronized (this) {
+                directories.remove(key);
+            }
+        }
+    }
+
+    private void flush() {
+        Set<File> changed = new LinkedHashSet<>(pending);
+        pending.clear();
+
+        if (!changed.isEmpty())
+            mainThread.execute(() -> onChange.accept(changed));
+    }
+
+}
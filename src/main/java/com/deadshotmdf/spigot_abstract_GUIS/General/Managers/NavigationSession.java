@@ -0,0 +1,119 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Managers;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Objects.NavigationEntry;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+//Where a player came from, newest first. Holds at most maxDepth entries, the oldest fall off the bottom.
+//Only the newest liveEntries keep their per player GUI around, so going back one step returns to the exact same inventories.
+//Deeper entries are only a template name, page and args and get rebuilt from the template when the player gets back to them,
+//so a player that has been browsing for an hour holds as much as one that just opened the menu.
+//Shared GUIs are kept in every entry, they're alive anyway. Per player GUIs the session lets go of are handed to onRelease. Used from the player's thread only
+public class NavigationSession {
+
+    private final ArrayDeque<Frame> frames;
+    private final int maxDepth;
+    private final int liveEntries;
+    private final Consumer<GUI> onRelease;
+
+    public NavigationSession(int maxDepth, int liveEntries, Consumer<GUI> onRelease) {
+        this.frames = new ArrayDeque<>();
+        this.onRelease = onRelease;
+        this.maxDepth = Math.max(1, maxDepth);
+        this.liveEntries = Math.max(0, liveEntries);
+    }
+
+    //instance may be null, the entry is then always rebuilt from its template
+    public void push(NavigationEntry entry, GUI instance) {
+        frames.push(new Frame(entry, instance));
+
+        while (frames.size() > maxDepth)
+            release(frames.removeLast());
+
+        //A push moves every frame down by one, so only the one that just left the live window has to let go of its GUI
+        if (frames.size() <= liveEntries)
+            return;
+
+        Iterator<Frame> iterator = frames.iterator();
+        for (int i = 0; i < liveEntries; i++)
+            iterator.next();
+
+        release(iterator.next());
+    }
+
+    //null when there's nowhere to go back to
+    public Frame pop() {
+        return frames.poll();
+    }
+
+    public NavigationEntry peek() {
+        Frame frame = frames.peek();
+        return frame != null ? frame.getEntry() : null;
+    }
+
+    //Whether a frame still keeps this GUI
+    public boolean holds(GUI gui) {
+        for (Frame frame : frames)
+            if (frame.getInstance() == gui)
+                return true;
+
+        return false;
+    }
+
+    public int getDepth() {
+        return frames.size();
+    }
+
+    public int getLiveInstances() {
+        int live = 0;
+
+        for (Frame frame : frames)
+            if (frame.getInstance() != null && !frame.getInstance().isShared())
+                live++;
+
+        return live;
+    }
+
+    public void clear() {
+        Frame frame;
+
+        while ((frame = frames.poll()) != null)
+            release(frame);
+    }
+
+    private void release(Frame frame) {
+        GUI instance = frame.getInstance();
+
+        if (instance == null || instance.isShared())
+            return;
+
+        frame.instance = null;
+
+        if (onRelease != null)
+            onRelease.accept(instance);
+    }
+
+    public static final class Frame {
+
+        private final NavigationEntry entry;
+        private GUI instance;
+
+        private Frame(NavigationEntry entry, GUI instance) {
+            this.entry = entry;
+            this.instance = instance;
+        }
+
+        public NavigationEntry getEntry() {
+            return entry;
+        }
+
+        //null once the frame left the live window
+        public GUI getInstance() {
+            return instance;
+        }
+    }
+
+}
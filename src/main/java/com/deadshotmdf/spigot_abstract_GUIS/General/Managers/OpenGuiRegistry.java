@@ -0,0 +1,160 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Managers;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Which GUI every player has open, plus indexes of the distinct open GUIs by concrete type and by template name.
+//A shared GUI is open for many players but is indexed once, with a count of the players pointing at it,
+//so refreshing by type or template touches every affected GUI exactly once.
+//Safe to use from several threads at once (region threads on Folia): lookups don't lock, and every index update
+//is an atomic compute on a single key, so players in different regions never wait on each other.
+//GUIs don't override equals, so the GUI keyed maps work by identity
+public class OpenGuiRegistry {
+
+    private final Map<UUID, GUI> byPlayer;
+    private final Map<GUI, Indexed> indexed;
+    private final Map<Class<?>, Set<GUI>> byType;
+    private final Map<String, Set<GUI>> byTemplate;
+
+    public OpenGuiRegistry() {
+        this.byPlayer = new ConcurrentHashMap<>();
+        this.indexed = new ConcurrentHashMap<>();
+        this.byType = new ConcurrentHashMap<>();
+        this.byTemplate = new ConcurrentHashMap<>();
+    }
+
+    public GUI get(UUID uuid) {
+        return byPlayer.get(uuid);
+    }
+
+    public GUI put(UUID uuid, GUI gui) {
+        GUI previous = byPlayer.put(uuid, gui);
+
+        if (previous == gui)
+            return previous;
+
+        unindex(previous);
+        index(gui);
+        return previous;
+    }
+
+    public GUI remove(UUID uuid) {
+        GUI previous = byPlayer.remove(uuid);
+        unindex(previous);
+        return previous;
+    }
+
+    //Every player that has the old GUI open now points at the new one
+    public void replace(GUI old, GUI gui) {
+        if (old == gui || !indexed.containsKey(old))
+            return;
+
+        for (Map.Entry<UUID, GUI> entry : byPlayer.entrySet()) {
+            if (entry.getValue() != old || !byPlayer.replace(entry.getKey(), old, gui))
+                continue;
+
+            unindex(old);
+            index(gui);
+        }
+    }
+
+    //Every open GUI once, no matter how many players are looking at it
+    public List<GUI> distinct() {
+        return new ArrayList<>(indexed.keySet());
+    }
+
+    //Distinct open GUIs whose class is the given class or extends it
+    public List<GUI> byType(Class<?> cls) {
+        List<GUI> found = new ArrayList<>();
+
+        for (Map.Entry<Class<?>, Set<GUI>> entry : byType.entrySet())
+            if (cls.isAssignableFrom(entry.getKey()))
+                found.addAll(entry.getValue());
+
+        return found;
+    }
+
+    public List<GUI> byTemplate(String name) {
+        Set<GUI> guis = name != null ? byTemplate.get(name.toLowerCase()) : null;
+        return guis != null ? new ArrayList<>(guis) : new ArrayList<>();
+    }
+
+    public int getPlayerCount(GUI gui) {
+        Indexed entry = indexed.get(gui);
+        return entry != null ? entry.players : 0;
+    }
+
+    public int size() {
+        return byPlayer.size();
+    }
+
+    private void index(GUI gui) {
+        if (gui == null)
+            return;
+
+        indexed.compute(gui, (key, entry) -> {
+            if (entry != null) {
+                entry.players++;
+                return entry;
+            }
+
+            entry = new Indexed(gui.getTemplateName() != null ? gui.getTemplateName().toLowerCase() : null);
+            addTo(byType, gui.getClass(), gui);
+
+            if (entry.template != null)
+                addTo(byTemplate, entry.template, gui);
+
+            return entry;
+        });
+    }
+
+    private void unindex(GUI gui) {
+        if (gui == null)
+            return;
+
+        indexed.computeIfPresent(gui, (key, entry) -> {
+            if (--entry.players > 0)
+                return entry;
+
+            removeFrom(byType, gui.getClass(), gui);
+
+            if (entry.template != null)
+                removeFrom(byTemplate, entry.template, gui);
+
+            return null;
+        });
+    }
+
+    private static <K> void addTo(Map<K, Set<GUI>> index, K key, GUI gui) {
+        index.compute(key, (k, guis) -> {
+            if (guis == null)
+                guis = ConcurrentHashMap.newKeySet();
+
+            guis.add(gui);
+            return guis;
+        });
+    }
+
+    private static <K> void removeFrom(Map<K, Set<GUI>> index, K key, GUI gui) {
+        index.computeIfPresent(key, (k, guis) -> {
+            guis.remove(gui);
+            return guis.isEmpty() ? null : guis;
+        });
+    }
+
+    //The template name is remembered as it was when indexed, so the GUI can be found again even if it's renamed later.
+    //players is only changed inside compute on the GUI's key
+    private static final class Indexed {
+
+        private final String template;
+        private volatile int players;
+
+        private Indexed(String template) {
+            this.template = template;
+            this.players = 1;
+        }
+    }
+
+}
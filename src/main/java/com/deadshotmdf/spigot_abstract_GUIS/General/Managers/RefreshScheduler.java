@@ -0,0 +1,73 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Managers;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+//Collects the GUIs that asked for a refresh and renders each of them once on the next tick.
+//A click that changes the amount, the click handler and a refreshInventories call on top all end up as a single render.
+//GUI.refreshInventory() is still there for the cases that need the inventory updated right away.
+//GUIs can be marked from any thread, each one is rendered on the thread that owns it (see GuiScheduler)
+public class RefreshScheduler {
+
+    private final JavaPlugin plugin;
+    private final GuiScheduler scheduler;
+    //GUIs don't override equals, so this is an identity set
+    private final Set<GUI> dirty;
+    private final AtomicBoolean scheduled;
+
+    public RefreshScheduler(JavaPlugin plugin, GuiScheduler scheduler) {
+        this.plugin = plugin;
+        this.scheduler = scheduler;
+        this.dirty = ConcurrentHashMap.newKeySet();
+        this.scheduled = new AtomicBoolean();
+    }
+
+    public void markDirty(GUI gui) {
+        if (gui == null || !dirty.add(gui))
+            return;
+
+        if (!plugin.isEnabled()) {
+            flush();
+            return;
+        }
+
+        if (scheduled.compareAndSet(false, true))
+            scheduler.runGlobalNextTick(this::flush);
+    }
+
+    public boolean isDirty(GUI gui) {
+        return dirty.contains(gui);
+    }
+
+    //Renders a single GUI now if it was waiting for the flush
+    public void flush(GUI gui) {
+        if (dirty.remove(gui))
+            render(gui);
+    }
+
+    public void flush() {
+        scheduled.set(false);
+
+        if (dirty.isEmpty())
+            return;
+
+        List<GUI> toRender = new ArrayList<>(dirty);
+        dirty.removeAll(toRender);
+        toRender.forEach(gui -> scheduler.runFor(gui.isShared() ? null : gui.getViewer(), () -> render(gui)));
+    }
+
+    public void clear() {
+        dirty.clear();
+    }
+
+    private void render(GUI gui) {
+        try {gui.refreshInventory();}
+        catch (Throwable e) {plugin.getLogger().log(Level.WARNING, "Failed to refresh GUI " + gui.getTemplateName(), e);}
+    }
+
+}
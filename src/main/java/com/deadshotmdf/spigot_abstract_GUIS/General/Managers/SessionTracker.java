@@ -0,0 +1,253 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Managers;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+//Keeps count of the per player GUI instances that are in use and notices the ones that never go away.
+//An instance is live from the moment GuiManager opens it until its session ends: closed, replaced by another GUI, its player quit,
+//or dropped from the player's navigation. Ending releases its inventories right away, then the instance is only watched through a weak reference.
+//One that's still reachable leak_after_seconds later, with at least one old generation collection in between, is reported once as a suspected leak
+//with its template, its player, how it was opened and from where. Whatever holds it is then one look at that code away instead of a heap dump
+public class SessionTracker {
+
+    //Ended instances watched at once, the oldest are given up on past this
+    private static final int MAX_WATCHED = 4096;
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final List<GarbageCollectorMXBean> OLD_COLLECTORS = oldCollectors();
+
+    private final Logger logger;
+    //Weak keys, tracking an instance never keeps it alive. GUIs don't override equals so this works by identity
+    private final Map<GUI, Session> live;
+    private final Map<String, AtomicInteger> liveByTemplate;
+    private final Map<String, LongAdder> leaksByTemplate;
+    private final Queue<Ended> ended;
+    private final AtomicInteger watched;
+    private final LongAdder created;
+    private final LongAdder released;
+    private final LongAdder leaked;
+    private final LongAdder strayViewers;
+    private volatile boolean detectLeaks;
+    private volatile long leakAfterMillis;
+
+    public SessionTracker(Logger logger) {
+        this.logger = logger;
+        this.live = Collections.synchronizedMap(new WeakHashMap<>());
+        this.liveByTemplate = new ConcurrentHashMap<>();
+        this.leaksByTemplate = new ConcurrentHashMap<>();
+        this.ended = new ConcurrentLinkedQueue<>();
+        this.watched = new AtomicInteger();
+        this.created = new LongAdder();
+        this.released = new LongAdder();
+        this.leaked = new LongAdder();
+        this.strayViewers = new LongAdder();
+        this.detectLeaks = true;
+        this.leakAfterMillis = 120000;
+    }
+
+    public void configure(boolean detectLeaks, long leakAfterMillis) {
+        this.detectLeaks = detectLeaks;
+        this.leakAfterMillis = Math.max(0, leakAfterMillis);
+
+        if (!detectLeaks) {
+            ended.clear();
+            watched.set(0);
+        }
+    }
+
+    //origin says how the instance was opened (openGui, navigateTo, navigateBack), the caller outside of this library is added to it
+    public void track(GUI gui, UUID player, String origin) {
+        if (gui == null || gui.isShared())
+            return;
+
+        Session session = new Session(templateKey(gui), player, origin, detectLeaks ? findCaller() : null, System.currentTimeMillis());
+
+        if (live.putIfAbsent(gui, session) != null)
+            return;
+
+        created.increment();
+        liveByTemplate.computeIfAbsent(session.getTemplate(), k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public boolean isLive(GUI gui) {
+        return gui != null && live.containsKey(gui);
+    }
+
+    //Ends the instance's session and releases its inventories. Ending twice does nothing.
+    //leaving is the player whose session it was, anyone else still looking at one of its inventories is counted as a stray viewer
+    public void end(GUI gui, UUID leaving) {
+        Session session = gui != null ? live.remove(gui) : null;
+
+        if (session == null)
+            return;
+
+        liveByTemplate.computeIfPresent(session.getTemplate(), (k, count) -> count.decrementAndGet() > 0 ? count : null);
+
+        int stray = 0;
+        try {stray = gui.release(leaving);}
+        catch (Throwable e) {logger.log(Level.WARNING, "Failed to release GUI " + session.getTemplate(), e);}
+
+        if (stray > 0) {
+            strayViewers.add(stray);
+            logger.warning(stray + " player(s) were still viewing " + session.getTemplate() + " after " + session.getPlayer() + "'s session of it ended");
+        }
+
+        if (!detectLeaks)
+            return;
+
+        ended.add(new Ended(gui, session, System.currentTimeMillis(), gcCount()));
+
+        //Over the cap the oldest one is given up on, unreported
+        if (watched.incrementAndGet() > MAX_WATCHED && ended.poll() != null)
+            watched.decrementAndGet();
+    }
+
+    //Drops the ones that were collected and reports the ones that overstayed. Returns how many new suspects were found
+    public int sweep() {
+        long now = System.currentTimeMillis();
+        long collections = gcCount();
+        int found = 0;
+        Iterator<Ended> iterator = ended.iterator();
+
+        while (iterator.hasNext()) {
+            Ended entry = iterator.next();
+
+            if (entry.get() == null) {
+                iterator.remove();
+                watched.decrementAndGet();
+                released.increment();
+                continue;
+            }
+
+            if (now - entry.endedAt < leakAfterMillis || collections <= entry.collectionsAtEnd)
+                continue;
+
+            iterator.remove();
+            watched.decrementAndGet();
+            leaked.increment();
+            leaksByTemplate.computeIfAbsent(entry.session.getTemplate(), k -> new LongAdder()).increment();
+            found++;
+
+            Session session = entry.session;
+            logger.warning("Possible GUI leak: an instance of " + session.getTemplate() + " is still reachable " + (now - entry.endedAt) / 1000 + "s after its session ended. "
+                    + "Player " + session.getPlayer() + ", opened through " + session.getOrigin() + (session.getCaller() != null ? " from " + session.getCaller() : "")
+                    + ", " + (entry.endedAt - session.getCreatedAt()) / 1000 + "s in use");
+        }
+
+        return found;
+    }
+
+    public int getLive() {
+        return live.size();
+    }
+
+    public Map<String, Integer> getLiveByTemplate() {
+        Map<String, Integer> counts = new TreeMap<>();
+        liveByTemplate.forEach((template, count) -> counts.put(template, count.get()));
+        return counts;
+    }
+
+    public Map<String, Long> getLeaksByTemplate() {
+        Map<String, Long> counts = new TreeMap<>();
+        leaksByTemplate.forEach((template, count) -> counts.put(template, count.sum()));
+        return counts;
+    }
+
+    //Ended instances that weren't collected yet, nor reported
+    public int getWatched() {
+        return Math.max(0, watched.get());
+    }
+
+    public long getCreated() {
+        return created.sum();
+    }
+
+    public long getReleased() {
+        return released.sum();
+    }
+
+    public long getLeaked() {
+        return leaked.sum();
+    }
+
+    public long getStrayViewers() {
+        return strayViewers.sum();
+    }
+
+    public void clear() {
+        live.clear();
+        liveByTemplate.clear();
+        ended.clear();
+        watched.set(0);
+    }
+
+    private static String templateKey(GUI gui) {
+        return gui.getTemplateName() != null ? gui.getTemplateName() : gui.getClass().getSimpleName();
+    }
+
+    //The first frame outside of this plugin's managers, the button or command that asked for the GUI
+    private static String findCaller() {
+        return WALKER.walk(frames -> frames
+                .filter(frame -> !frame.getClassName().startsWith(SessionTracker.class.getPackageName()))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1) + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse(null));
+    }
+
+    //A collection has to happen before a reachable instance means anything, and it has to be one that looks at the old generation.
+    //A GUI that was open for minutes is usually tenured by then, young collections never free it however unreachable it is
+    private static long gcCount() {
+        long count = 0;
+
+        for (GarbageCollectorMXBean bean : OLD_COLLECTORS)
+            count += Math.max(0, bean.getCollectionCount());
+
+        return count;
+    }
+
+    //G1 Old Generation and G1 Concurrent GC, PS MarkSweep, MarkSweepCompact, ZGC Major Cycles, Shenandoah Cycles...
+    //Collectors that only ever take the young generation (or only count pauses) are left out. With a collector nothing here recognizes every bean is used
+    private static List<GarbageCollectorMXBean> oldCollectors() {
+        List<GarbageCollectorMXBean> all = ManagementFactory.getGarbageCollectorMXBeans();
+        List<GarbageCollectorMXBean> old = new ArrayList<>();
+
+        for (GarbageCollectorMXBean bean : all) {
+            String name = bean.getName().toLowerCase(Locale.ROOT);
+
+            if (name.contains("young") || name.contains("minor") || name.contains("scavenge") || name.contains("copy") || name.contains("parnew") || name.contains("pauses"))
+                continue;
+
+            if (name.contains("old") || name.contains("marksweep") || name.contains("concurrent") || name.contains("major") || name.contains("cycles"))
+                old.add(bean);
+        }
+
+        return old.isEmpty() ? all : old;
+    }
+
+    public record Session(String getTemplate, UUID getPlayer, String getOrigin, String getCaller, long getCreatedAt) {
+    }
+
+    private static final class Ended extends WeakReference<GUI> {
+
+        private final Session session;
+        private final long endedAt;
+        private final long collectionsAtEnd;
+
+        private Ended(GUI gui, Session session, long endedAt, long collectionsAtEnd) {
+            super(gui);
+            this.session = session;
+            this.endedAt = endedAt;
+            this.collectionsAtEnd = collectionsAtEnd;
+        }
+    }
+
+}
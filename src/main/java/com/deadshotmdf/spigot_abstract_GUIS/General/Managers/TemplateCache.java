@@ -0,0 +1,332 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Managers;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GuiElementSpec;
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GuiFileSpec;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+//Stores one compact binary snapshot of every parsed GUI file under cache/, mirroring the folder structure of the GUI files.
+//A snapshot is only used when the file's content hash, the plugin version and the server version all match, otherwise the file is parsed from YAML again.
+//Buttons are live objects and are still created on every load, the snapshot saves the YAML parsing, coloring and material lookups
+public class TemplateCache {
+
+    private static final int MAGIC = 0x41475443;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte NULL = 0, STRING = 1, INTEGER = 2, LONG = 3, DOUBLE = 4, BOOLEAN = 5, LIST = 6, MAP = 7;
+
+    private final File dataFolder;
+    private final File cacheFolder;
+    private final String versionKey;
+    private final Logger logger;
+    private final AtomicInteger hits;
+    private final AtomicInteger misses;
+
+    public TemplateCache(JavaPlugin plugin) {
+        this.dataFolder = plugin.getDataFolder();
+        this.cacheFolder = new File(dataFolder, "cache/");
+        this.versionKey = plugin.getDescription().getVersion() + "|" + Bukkit.getBukkitVersion();
+        this.logger = plugin.getLogger();
+        this.hits = new AtomicInteger();
+        this.misses = new AtomicInteger();
+    }
+
+    public static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //Returns null on a miss, for any reason: no snapshot, different hash or version, or an unreadable file
+    public GuiFileSpec read(File guiFile, byte[] contentHash) {
+        File snapshot = getSnapshotFile(guiFile);
+
+        if (!snapshot.isFile()) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshot)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !versionKey.equals(readString(in)) || !Arrays.equals(contentHash, readBytes(in))) {
+                misses.incrementAndGet();
+                return null;
+            }
+
+            GuiFileSpec spec = readSpec(in);
+            hits.incrementAndGet();
+            return spec;
+        }
+        catch (Throwable e) {
+            logger.warning("Discarding unreadable template cache " + snapshot.getName() + ": " + e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    //Written to a temporary file first so a crash mid write never leaves a half snapshot behind
+    public void write(File guiFile, byte[] contentHash, GuiFileSpec spec) {
+        File snapshot = getSnapshotFile(guiFile);
+        File temp = new File(snapshot.getPath() + ".tmp");
+
+        try {
+            snapshot.getParentFile().mkdirs();
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, versionKey);
+                writeBytes(out, contentHash);
+                writeSpec(out, spec);
+            }
+
+            Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (Throwable e) {
+            temp.delete();
+            logger.fine("Not caching " + guiFile.getName() + ": " + e.getMessage());
+        }
+    }
+
+    public void invalidate(File guiFile) {
+        getSnapshotFile(guiFile).delete();
+    }
+
+    //Deletes snapshots whose GUI file no longer exists
+    public void pruneMissing() {
+        pruneMissing(cacheFolder);
+    }
+
+    private void pruneMissing(File directory) {
+        File[] files = directory.listFiles();
+
+        if (files == null)
+            return;
+
+        for (File file : files) {
+            if (file.isDirectory()) {
+                pruneMissing(file);
+                continue;
+            }
+
+            String relative = cacheFolder.toPath().relativize(file.toPath()).toString();
+
+            if (!relative.endsWith(".bin") || !new File(dataFolder, relative.substring(0, relative.length() - 4)).exists())
+                file.delete();
+        }
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    public void resetCounters() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    private File getSnapshotFile(File guiFile) {
+        String relative;
+
+        try {relative = dataFolder.toPath().toAbsolutePath().relativize(guiFile.toPath().toAbsolutePath()).toString();}
+        catch (IllegalArgumentException e) {relative = "external/" + guiFile.getName();}
+
+        return new File(cacheFolder, relative + ".bin");
+    }
+
+    private static void writeSpec(DataOutputStream out, GuiFileSpec spec) throws IOException {
+        writeString(out, spec.getTitle());
+        out.writeInt(spec.getSize());
+        out.writeBoolean(spec.isPerPlayer());
+        writeString(out, spec.getSpecialType());
+        out.writeInt(spec.getElements().size());
+
+        for (GuiElementSpec element : spec.getElements()) {
+            writeString(out, element.getKey());
+            writeString(out, element.getMaterial());
+            writeString(out, element.getName());
+            out.writeInt(element.getLore().size());
+
+            for (String line : element.getLore())
+                writeString(out, line);
+
+            out.writeInt(element.getCustomModelData());
+            out.writeInt(element.getPage());
+            out.writeInt(element.getSlots().size());
+
+            for (int slot : element.getSlots())
+                out.writeInt(slot);
+
+            writeValue(out, element.getElementData());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static GuiFileSpec readSpec(DataInputStream in) throws IOException {
+        String title = readString(in);
+        int size = in.readInt();
+        boolean perPlayer = in.readBoolean();
+        String specialType = readString(in);
+        int count = in.readInt();
+        List<GuiElementSpec> elements = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            String key = readString(in);
+            String material = readString(in);
+            String name = readString(in);
+
+            int loreSize = in.readInt();
+            List<String> lore = new ArrayList<>(loreSize);
+            for (int j = 0; j < loreSize; j++)
+                lore.add(readString(in));
+
+            int customModelData = in.readInt();
+            int page = in.readInt();
+
+            int slotCount = in.readInt();
+            Set<Integer> slots = new LinkedHashSet<>();
+            for (int j = 0; j < slotCount; j++)
+                slots.add(in.readInt());
+
+            Map<String, Object> elementData = (Map<String, Object>) readValue(in);
+            elements.add(new GuiElementSpec(key, material, name, lore, customModelData, page, slots, elementData));
+        }
+
+        return new GuiFileSpec(title, size, perPlayer, specialType, elements);
+    }
+
+    //Only the plain types YAML produces are supported, anything else makes the whole file uncacheable
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null)
+            out.writeByte(NULL);
+
+        else if (value instanceof String string) {
+            out.writeByte(STRING);
+            writeString(out, string);
+        }
+
+        else if (value instanceof Integer integer) {
+            out.writeByte(INTEGER);
+            out.writeInt(integer);
+        }
+
+        else if (value instanceof Long l) {
+            out.writeByte(LONG);
+            out.writeLong(l);
+        }
+
+        else if (value instanceof Double d) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(d);
+        }
+
+        else if (value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(bool);
+        }
+
+        else if (value instanceof List<?> list) {
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+
+            for (Object o : list)
+                writeValue(out, o);
+        }
+
+        else if (value instanceof ConfigurationSection section)
+            writeValue(out, section.getValues(false));
+
+        else if (value instanceof Map<?, ?> map) {
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(out, String.valueOf(entry.getKey()));
+                writeValue(out, entry.getValue());
+            }
+        }
+
+        else
+            throw new IOException("unsupported value type " + value.getClass().getSimpleName());
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case BOOLEAN:
+                return in.readBoolean();
+            case LIST: {
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++)
+                    list.add(readValue(in));
+                return list;
+            }
+            case MAP: {
+                int size = in.readInt();
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++)
+                    map.put(readString(in), readValue(in));
+                return map;
+            }
+            default:
+                throw new IOException("unknown value type " + type);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        writeBytes(out, s != null ? s.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = readBytes(in);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes != null ? bytes.length : -1);
+
+        if (bytes != null)
+            out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+
+        if (length < 0)
+            return null;
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+}
@@ -0,0 +1,337 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Objects;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.GUI.GUI;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryClickEvent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+//Everything a button gets to know about a click. Contexts are pooled per thread and reused, so handling a click allocates nothing:
+//the slot, page and click type are plain fields, and the values a GUI hands to its buttons go into arrays through typed keys
+//instead of a HashMap of boxed objects. A context is only valid until the click is handled, copy out what you need before going async.
+//asMap() is a view for GuiElements still written against the old Map<String, Object> extraArgs
+public final class ClickContext implements AutoCloseable {
+
+    //Registered under a lock, read without one from whatever thread handles the click
+    private static final List<BaseKey> KEYS = new CopyOnWriteArrayList<>();
+    private static final Map<String, BaseKey> KEYS_BY_NAME = new ConcurrentHashMap<>();
+    private static final ThreadLocal<ArrayDeque<ClickContext>> POOL = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public static final IntKey AMOUNT = intKey("amount");
+    public static final DoubleKey VALUE = doubleKey("value");
+
+    private InventoryClickEvent event;
+    private HumanEntity player;
+    private ClickType clickType;
+    private int slot;
+    private GUI gui;
+    private Map<String, Object> guiArgs;
+    private int page;
+
+    //A value is set when its stamp equals the current one, so clearing the context is a single increment
+    private long[] primitives;
+    private Object[] objects;
+    private int[] stamps;
+    private int stamp;
+    private Map<String, Object> extra;
+    private final ArgsView view;
+
+    private ClickContext() {
+        this.primitives = new long[8];
+        this.objects = new Object[8];
+        this.stamps = new int[8];
+        this.view = new ArgsView();
+    }
+
+    public static ClickContext acquire(InventoryClickEvent event) {
+        ClickContext context = POOL.get().poll();
+
+        if (context == null)
+            context = new ClickContext();
+
+        context.reset(event);
+        return context;
+    }
+
+    //Hands the context back to the pool, use try-with-resources around the dispatch
+    @Override
+    public void close() {
+        this.event = null;
+        this.player = null;
+        this.gui = null;
+        this.guiArgs = null;
+        Arrays.fill(objects, null);
+        POOL.get().push(this);
+    }
+
+    public static IntKey intKey(String name) {
+        return register(new IntKey(name));
+    }
+
+    public static DoubleKey doubleKey(String name) {
+        return register(new DoubleKey(name));
+    }
+
+    public static <T> Key<T> key(String name, Class<T> type) {
+        return register(new Key<>(name, type));
+    }
+
+    //Keys are global and meant to be constants, registering the same name twice returns the first key if it's of the same kind
+    @SuppressWarnings("unchecked")
+    private static synchronized <K extends BaseKey> K register(K key) {
+        BaseKey existing = KEYS_BY_NAME.get(key.name);
+
+        if (existing != null) {
+            if (existing.getClass() != key.getClass() || existing instanceof Key<?> k && k.type != ((Key<?>) key).type)
+                throw new IllegalArgumentException("Click key " + key.name + " is already registered with a different type");
+
+            return (K) existing;
+        }
+
+        key.index = KEYS.size();
+        KEYS.add(key);
+        KEYS_BY_NAME.put(key.name, key);
+        return key;
+    }
+
+    private void reset(InventoryClickEvent event) {
+        this.event = event;
+        this.player = event.getWhoClicked();
+        this.clickType = event.getClick();
+        this.slot = event.getRawSlot();
+        this.page = -1;
+
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+
+        if (extra != null)
+            extra.clear();
+    }
+
+    //Called by the GUI that handles the click, before any button sees it
+    public void setTarget(GUI gui, Map<String, Object> guiArgs, int page) {
+        this.gui = gui;
+        this.guiArgs = guiArgs;
+        this.page = page;
+    }
+
+    public InventoryClickEvent getEvent() {
+        return event;
+    }
+
+    public HumanEntity getPlayer() {
+        return player;
+    }
+
+    public ClickType getClickType() {
+        return clickType;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public GUI getGui() {
+        return gui;
+    }
+
+    //The args the GUI was created with
+    public Map<String, Object> getGuiArgs() {
+        return guiArgs != null ? guiArgs : Map.of();
+    }
+
+    public boolean has(BaseKey key) {
+        return key.index < stamps.length && stamps[key.index] == stamp;
+    }
+
+    public void set(IntKey key, int value) {
+        primitives[mark(key)] = value;
+    }
+
+    public void set(DoubleKey key, double value) {
+        primitives[mark(key)] = Double.doubleToRawLongBits(value);
+    }
+
+    public <T> void set(Key<T> key, T value) {
+        objects[mark(key)] = value;
+    }
+
+    public int get(IntKey key, int def) {
+        return has(key) ? (int) primitives[key.index] : def;
+    }
+
+    public double get(DoubleKey key, double def) {
+        return has(key) ? Double.longBitsToDouble(primitives[key.index]) : def;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key<T> key, T def) {
+        Object value = has(key) ? objects[key.index] : null;
+        return value != null ? (T) value : def;
+    }
+
+    public void remove(BaseKey key) {
+        if (has(key))
+            stamps[key.index] = stamp - 1;
+    }
+
+    public Map<String, Object> asMap() {
+        return view;
+    }
+
+    private int mark(BaseKey key) {
+        int index = key.index;
+
+        if (index >= stamps.length) {
+            int length = Math.max(index + 1, stamps.length * 2);
+            primitives = Arrays.copyOf(primitives, length);
+            objects = Arrays.copyOf(objects, length);
+            stamps = Arrays.copyOf(stamps, length);
+        }
+
+        stamps[index] = stamp;
+        return index;
+    }
+
+    public static abstract sealed class BaseKey permits IntKey, DoubleKey, Key {
+
+        final String name;
+        int index;
+
+        private BaseKey(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    public static final class IntKey extends BaseKey {
+
+        private IntKey(String name) {
+            super(name);
+        }
+    }
+
+    public static final class DoubleKey extends BaseKey {
+
+        private DoubleKey(String name) {
+            super(name);
+        }
+    }
+
+    public static final class Key<T> extends BaseKey {
+
+        private final Class<T> type;
+
+        private Key(String name, Class<T> type) {
+            super(name);
+            this.type = type;
+        }
+
+        public Class<T> getType() {
+            return type;
+        }
+    }
+
+    //Names of registered keys read and write the typed slots, anything else lands in a plain map that's only created if someone uses it
+    private final class ArgsView extends AbstractMap<String, Object> {
+
+        @Override
+        public Object get(Object name) {
+            BaseKey key = KEYS_BY_NAME.get(name);
+
+            if (key != null && has(key))
+                return boxed(key);
+
+            return extra != null ? extra.get(name) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object name) {
+            BaseKey key = KEYS_BY_NAME.get(name);
+            return key != null && has(key) || extra != null && extra.containsKey(name);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object put(String name, Object value) {
+            BaseKey key = KEYS_BY_NAME.get(name);
+            Object previous = get(name);
+
+            if (key instanceof IntKey intKey && value instanceof Integer i)
+                set(intKey, i);
+            else if (key instanceof DoubleKey doubleKey && value instanceof Number n)
+                set(doubleKey, n.doubleValue());
+            else if (key instanceof Key<?> objectKey && objectKey.type.isInstance(value))
+                set((Key<Object>) objectKey, value);
+            else {
+                if (key != null)
+                    ClickContext.this.remove(key);
+
+                if (extra == null)
+                    extra = new HashMap<>();
+
+                extra.put(name, value);
+                return previous;
+            }
+
+            if (extra != null)
+                extra.remove(name);
+
+            return previous;
+        }
+
+        @Override
+        public Object remove(Object name) {
+            Object previous = get(name);
+            BaseKey key = KEYS_BY_NAME.get(name);
+
+            if (key != null)
+                ClickContext.this.remove(key);
+
+            if (extra != null)
+                extra.remove(name);
+
+            return previous;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            Map<String, Object> entries = new LinkedHashMap<>();
+
+            for (BaseKey key : KEYS)
+                if (has(key))
+                    entries.put(key.name, boxed(key));
+
+            if (extra != null)
+                entries.putAll(extra);
+
+            return entries.entrySet();
+        }
+
+        private Object boxed(BaseKey key) {
+            return switch (key) {
+                case IntKey intKey -> ClickContext.this.get(intKey, 0);
+                case DoubleKey doubleKey -> ClickContext.this.get(doubleKey, 0.0);
+                case Key<?> objectKey -> objects[objectKey.index];
+            };
+        }
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Objects;
+
+import java.util.Map;
+
+//Enough to rebuild a screen the player went through: which template, which page they were on and the args it was opened with.
+//args may be null, the GUI is then rebuilt with empty args
+public record NavigationEntry(String getTemplateName, int getPage, Map<String, Object> getArgs) {
+
+    public static NavigationEntry of(String templateName) {
+        return new NavigationEntry(templateName != null ? templateName.toLowerCase() : null, 0, null);
+    }
+
+}
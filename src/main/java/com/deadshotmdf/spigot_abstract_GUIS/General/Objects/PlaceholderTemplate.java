@@ -0,0 +1,187 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//A name, lore line or message split once into literal parts and {placeholder} tokens, so rendering is a single pass into a pre-sized builder.
+//Text without any {token} renders to itself without copying.
+//Placeholders that aren't written as {token} still work, those renders fall back to StringUtils.replaceEach
+public final class PlaceholderTemplate {
+
+    private static final String[] NONE = new String[0];
+
+    private final String raw;
+    //literals always has one more entry than tokens: literal, token, literal, token, ..., literal
+    private final String[] literals;
+    private final String[] tokens;
+    private final int literalLength;
+    //Which placeholder index every token maps to, for the last placeholders array this was rendered with. Immutable, replaced as a whole
+    private Resolution resolution;
+
+    private PlaceholderTemplate(String raw, String[] literals, String[] tokens) {
+        this.raw = raw;
+        this.literals = literals;
+        this.tokens = tokens;
+
+        int length = 0;
+        for (String literal : literals)
+            length += literal.length();
+
+        this.literalLength = length;
+    }
+
+    public static PlaceholderTemplate compile(String text) {
+        if (text == null)
+            text = "";
+
+        int open = text.indexOf('{');
+
+        if (open < 0)
+            return new PlaceholderTemplate(text, new String[]{text}, NONE);
+
+        List<String> literals = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+
+        while (open >= 0) {
+            int close = text.indexOf('}', open + 1);
+
+            if (close < 0)
+                break;
+
+            literals.add(text.substring(start, open));
+            tokens.add(text.substring(open, close + 1));
+            start = close + 1;
+            open = text.indexOf('{', start);
+        }
+
+        literals.add(text.substring(start));
+        return new PlaceholderTemplate(text, literals.toArray(NONE), tokens.toArray(NONE));
+    }
+
+    public static List<PlaceholderTemplate> compile(List<String> lines) {
+        List<PlaceholderTemplate> compiled = new ArrayList<>(lines != null ? lines.size() : 0);
+
+        if (lines != null)
+            for (String line : lines)
+                compiled.add(compile(line));
+
+        return compiled;
+    }
+
+    public static boolean anyPlaceholders(List<PlaceholderTemplate> lines) {
+        for (PlaceholderTemplate line : lines)
+            if (line.hasPlaceholders())
+                return true;
+
+        return false;
+    }
+
+    //Lines without placeholders are passed through as they are
+    public static List<String> render(List<PlaceholderTemplate> lines, String[] placeholders, String... replacements) {
+        List<String> rendered = new ArrayList<>(lines.size());
+
+        for (PlaceholderTemplate line : lines)
+            rendered.add(line.render(placeholders, replacements));
+
+        return rendered;
+    }
+
+    //True when every placeholder is written as a {token}. Otherwise text without tokens can still contain one of them
+    public static boolean usesTokens(String[] placeholders) {
+        for (String placeholder : placeholders)
+            if (placeholder == null || placeholder.length() < 2 || placeholder.charAt(0) != '{' || placeholder.indexOf('}') != placeholder.length() - 1)
+                return false;
+
+        return true;
+    }
+
+    public String getRaw() {
+        return raw;
+    }
+
+    public boolean hasPlaceholders() {
+        return tokens.length > 0;
+    }
+
+    public String render(String placeholder, String replacement) {
+        if (tokens.length == 0)
+            return raw;
+
+        StringBuilder builder = new StringBuilder(literalLength + tokens.length * (replacement != null ? replacement.length() : 4));
+
+        for (int i = 0; i < tokens.length; i++) {
+            builder.append(literals[i]);
+            builder.append(tokens[i].equals(placeholder) ? replacement : tokens[i]);
+        }
+
+        return builder.append(literals[tokens.length]).toString();
+    }
+
+    public String render(String[] placeholders, String... replacements) {
+        if (placeholders == null || replacements == null || placeholders.length == 0 || placeholders.length != replacements.length)
+            return raw;
+
+        Resolution resolution = resolve(placeholders);
+
+        if (resolution.isFallback())
+            return StringUtils.replaceEach(raw, placeholders, replacements);
+
+        if (tokens.length == 0)
+            return raw;
+
+        int[] indices = resolution.getIndices();
+        int length = literalLength;
+
+        for (int i = 0; i < tokens.length; i++) {
+            String value = indices[i] >= 0 ? replacements[indices[i]] : tokens[i];
+            length += value != null ? value.length() : 4;
+        }
+
+        StringBuilder builder = new StringBuilder(length);
+
+        for (int i = 0; i < tokens.length; i++) {
+            builder.append(literals[i]);
+            builder.append(indices[i] >= 0 ? replacements[indices[i]] : tokens[i]);
+        }
+
+        return builder.append(literals[tokens.length]).toString();
+    }
+
+    //Placeholder arrays are almost always the same constant, so the lookup is done once per array instead of once per render.
+    //That also means a placeholders array shouldn't be changed after it was used for rendering
+    private Resolution resolve(String[] placeholders) {
+        Resolution current = resolution;
+
+        if (current != null && current.getPlaceholders() == placeholders)
+            return current;
+
+        boolean fallback = !usesTokens(placeholders);
+        int[] indices = new int[tokens.length];
+
+        for (int i = 0; i < tokens.length; i++) {
+            indices[i] = -1;
+
+            for (int j = 0; j < placeholders.length; j++)
+                if (tokens[i].equals(placeholders[j])) {
+                    indices[i] = j;
+                    break;
+                }
+        }
+
+        current = new Resolution(placeholders, indices, fallback);
+        resolution = current;
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+
+    private record Resolution(String[] getPlaceholders, int[] getIndices, boolean isFallback) {
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.Processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+//Reads every @ButtonIdentifier class at compile time and generates a ButtonProvider that creates them through plain constructor calls.
+//The generated class is listed in META-INF/services so GUIUtils can find it with a ServiceLoader instead of scanning the classpath.
+//The generated class name can be changed with -AbuttonRegistryClass=your.package.YourRegistry, by default it goes in the common package of the buttons.
+//Only the annotation's name is referenced here so this compiles before the rest of the plugin does.
+//The registry is written in the round the buttons are found in, not the final one, so javac still compiles it like any other source and doesn't warn about it
+@SupportedAnnotationTypes(ButtonRegistryProcessor.ANNOTATION)
+@SupportedOptions(ButtonRegistryProcessor.CLASS_OPTION)
+public class ButtonRegistryProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.ButtonIdentifier";
+    static final String CLASS_OPTION = "buttonRegistryClass";
+
+    private static final String PROVIDER = "com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.ButtonProvider";
+    private static final String MANAGER = "com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager";
+    private static final String[] PARAMETERS = {"org.bukkit.inventory.ItemStack", null, "com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager", "java.lang.String[]", "java.util.Map"};
+
+    //identifier -> constructor call, sorted so the generated file is the same on every build
+    private final Map<String, String> buttons = new TreeMap<>();
+    private final Set<String> packages = new HashSet<>();
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(ANNOTATION);
+
+        if (annotation == null || roundEnv.processingOver())
+            return false;
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation))
+            collect(element, annotation);
+
+        if (!generated && !buttons.isEmpty()) {
+            generated = true;
+            generate();
+        }
+
+        return false;
+    }
+
+    private void collect(Element element, TypeElement annotation) {
+        Messager messager = processingEnv.getMessager();
+
+        if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT))
+            return;
+
+        TypeElement type = (TypeElement) element;
+        String identifier = getIdentifier(type, annotation);
+
+        if (identifier == null || identifier.isBlank()) {
+            messager.printMessage(Diagnostic.Kind.WARNING, "Blank @ButtonIdentifier, button will not be registered", type);
+            return;
+        }
+
+        //Only buttons generated by another processor after the registry was written can get here
+        if (generated) {
+            messager.printMessage(Diagnostic.Kind.WARNING, "Button was generated after the button registry, it will not be registered", type);
+            return;
+        }
+
+        String call = getConstructorCall(type);
+
+        if (call == null) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Buttons need a public constructor (ItemStack, <manager>, GuiManager, String[], Map<String, Object>)", type);
+            return;
+        }
+
+        String previous = buttons.put(identifier, call);
+
+        if (previous != null && !previous.equals(call))
+            messager.printMessage(Diagnostic.Kind.ERROR, "Duplicate @ButtonIdentifier \"" + identifier + "\"", type);
+
+        packages.add(processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString());
+    }
+
+    private String getIdentifier(TypeElement type, TypeElement annotation) {
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (!mirror.getAnnotationType().asElement().equals(annotation))
+                continue;
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet())
+                if (entry.getKey().getSimpleName().contentEquals("value"))
+                    return String.valueOf(entry.getValue().getValue());
+        }
+
+        return null;
+    }
+
+    //The manager parameter is the only one allowed to vary, buttons can ask for their own manager type and get a cast
+    private String getConstructorCall(TypeElement type) {
+        Types types = processingEnv.getTypeUtils();
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            List<? extends VariableElement> parameters = constructor.getParameters();
+
+            if (!constructor.getModifiers().contains(Modifier.PUBLIC) || parameters.size() != PARAMETERS.length)
+                continue;
+
+            boolean matches = true;
+
+            for (int i = 0; i < PARAMETERS.length && matches; i++)
+                matches = PARAMETERS[i] == null || types.erasure(parameters.get(i).asType()).toString().equals(PARAMETERS[i]);
+
+            if (!matches)
+                continue;
+
+            TypeMirror manager = types.erasure(parameters.get(1).asType());
+            String managerArg = manager.toString().equals(MANAGER) ? "manager" : "(" + manager + ") manager";
+
+            return "new " + type.getQualifiedName() + "(item, " + managerArg + ", guiManager, args, data)";
+        }
+
+        return null;
+    }
+
+    private void generate() {
+        String common = commonPackage();
+        String className = processingEnv.getOptions().getOrDefault(CLASS_OPTION, common.isEmpty() ? "GeneratedButtonRegistry" : common + ".GeneratedButtonRegistry");
+        int dot = className.lastIndexOf('.');
+        String packageName = dot > 0 ? className.substring(0, dot) : "";
+        String simpleName = className.substring(dot + 1);
+
+        try {
+            JavaFileObject source = processingEnv.getFiler().createSourceFile(className);
+
+            try (Writer writer = source.openWriter()) {
+                if (!packageName.isEmpty())
+                    writer.write("package " + packageName + ";\n\n");
+
+                writer.write("import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.AbstractButton;\n");
+                writer.write("import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.ButtonProvider;\n");
+                writer.write("import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.TriFunction;\n");
+                writer.write("import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;\n");
+                writer.write("import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;\n");
+                writer.write("import org.bukkit.inventory.ItemStack;\n\n");
+                writer.write("import java.util.Map;\n\n");
+                writer.write("//Generated by ButtonRegistryProcessor, do not edit\n");
+                writer.write("public final class " + simpleName + " implements ButtonProvider {\n\n");
+                writer.write("    @Override\n");
+                writer.write("    public void registerButtons(Map<String, TriFunction<ItemStack, AbstractGUIManager, GuiManager, String[], Map<String, Object>, AbstractButton<?>>> buttons) {\n");
+
+                for (Map.Entry<String, String> entry : buttons.entrySet())
+                    writer.write("        buttons.put(\"" + entry.getKey().replace("\\", "\\\\").replace("\"", "\\\"") + "\", (item, manager, guiManager, args, data) -> " + entry.getValue() + ");\n");
+
+                writer.write("    }\n\n}\n");
+            }
+
+            FileObject services = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + PROVIDER);
+
+            try (Writer writer = services.openWriter()) {
+                writer.write(className + "\n");
+            }
+        }
+        catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not generate the button registry: " + e.getMessage());
+        }
+    }
+
+    private String commonPackage() {
+        Iterator<String> iterator = packages.iterator();
+        String common = iterator.next();
+
+        while (iterator.hasNext()) {
+            String next = iterator.next();
+
+            while (!common.isEmpty() && !(next.equals(common) || next.startsWith(common + ".")))
+                common = common.contains(".") ? common.substring(0, common.lastIndexOf('.')) : "";
+        }
+
+        return common;
+    }
+
+}
@@ -2,13 +2,20 @@ package com.deadshotmdf.spigot_abstract_GUIS;
 
 import com.deadshotmdf.spigot_abstract_GUIS.ExampleShop.Commands.OpenShopCommand;
 import com.deadshotmdf.spigot_abstract_GUIS.ExampleShop.Commands.SellAllCommand;
+import com.deadshotmdf.spigot_abstract_GUIS.ExampleShop.Listeners.ShopListener;
 import com.deadshotmdf.spigot_abstract_GUIS.ExampleShop.Managers.ShopManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.RenderCache;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Commands.ReloadCommand;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Listeners.GUIListener;
 import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
 import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+
 public final class S_A_GUIS extends JavaPlugin {
 
     private GuiManager guiManager;
@@ -16,14 +23,30 @@ public final class S_A_GUIS extends JavaPlugin {
 
     @Override
     public void onEnable() {
+        this.saveDefaultConfig();
         GUIUtils.createButtons();
+        RenderCache.setMaxSize(getConfig().getInt("render_cache.max_size", 2048));
 
-        this.guiManager = new GuiManager();
+        this.guiManager = new GuiManager(this);
+        this.guiManager.configureAsync(getConfig().getString("async.executor", "virtual"), getConfig().getInt("async.threads", 4), createConfigItem("async.loading_item", "GRAY_STAINED_GLASS_PANE", "&7Loading..."));
+        this.guiManager.getActionPipeline().configure(getConfig().getLong("actions.timeout_seconds", 10) * 1000, getConfig().getInt("actions.max_queued", 4), createConfigItem("actions.busy_item", "CLOCK", "&7Working..."));
+        this.guiManager.getClickLimiter().load(getConfig().getConfigurationSection("click_limits"));
+        this.guiManager.getScheduler().setCheckConfinement(getConfig().getBoolean("threading.check_confinement", false));
+        this.guiManager.configureNavigation(getConfig().getInt("navigation.max_depth", 16), getConfig().getInt("navigation.live_entries", 1));
+        this.guiManager.startLeakDetection(getConfig().getBoolean("leak_detection.enabled", true), getConfig().getLong("leak_detection.leak_after_seconds", 120) * 1000);
+        this.guiManager.getMetrics().setEnabled(getConfig().getBoolean("metrics.enabled", false));
+        this.guiManager.startMetricsFile(new File(getDataFolder(), getConfig().getString("metrics.file", "metrics.json")), getConfig().getLong("metrics.interval_seconds", 60));
         this.shopManager = new ShopManager(guiManager, this);
 
         this.guiManager.reloadConfig();
 
+        if(getConfig().getBoolean("hot_reload.enabled", false))
+            this.guiManager.startWatching(getConfig().getLong("hot_reload.debounce_ms", 500));
+
+        this.guiManager.startPageEviction(getConfig().getLong("pages.evict_after_seconds", 300) * 1000);
+
         Bukkit.getPluginManager().registerEvents(new GUIListener(guiManager), this);
+        Bukkit.getPluginManager().registerEvents(new ShopListener(shopManager), this);
 
         this.getCommand("abstractguis").setExecutor(new ReloadCommand(guiManager));
 
@@ -31,8 +54,22 @@ public final class S_A_GUIS extends JavaPlugin {
         this.getCommand("sellall").setExecutor(new SellAllCommand(shopManager));
     }
 
+    private ItemStack createConfigItem(String path, String defMaterial, String defName) {
+        Material material = Material.matchMaterial(getConfig().getString(path + ".material", defMaterial));
+        ItemStack item = new ItemStack(material != null ? material : Material.matchMaterial(defMaterial));
+        ItemMeta meta = item.getItemMeta();
+
+        if(meta != null){
+            meta.setDisplayName(GUIUtils.color(getConfig().getString(path + ".name", defName)));
+            item.setItemMeta(meta);
+        }
+
+        return item;
+    }
+
     @Override
     public void onDisable() {
         guiManager.saveAll();
+        guiManager.shutdown();
     }
 }
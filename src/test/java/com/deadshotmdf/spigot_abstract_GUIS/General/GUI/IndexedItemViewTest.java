@@ -0,0 +1,182 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedItemViewTest {
+
+    //Mutable on purpose, update() is how a changed price or name gets re-indexed
+    private static final class Entry {
+        private String name;
+        private int price;
+
+        private Entry(String name, int price) {
+            this.name = name;
+            this.price = price;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private IndexedItemView<Entry> view;
+    private Entry oak, birch, darkOak, stone;
+
+    @BeforeEach
+    void setUp() {
+        view = new IndexedItemView<>(entry -> entry.name);
+        view.addSort("price", Comparator.comparingInt(entry -> entry.price));
+        view.addSort("name", Comparator.comparing(entry -> entry.name));
+        view.addFilter("cheap", entry -> entry.price < 10);
+
+        oak = new Entry("Oak Log", 5);
+        birch = new Entry("Birch Log", 20);
+        darkOak = new Entry("Dark Oak Log", 5);
+        stone = new Entry("Stone", 1);
+
+        view.add(oak);
+        view.add(birch);
+        view.add(darkOak);
+        view.add(stone);
+    }
+
+    @Test
+    void addKeepsEveryIndexSorted() {
+        assertEquals(List.of(oak, birch, darkOak, stone), all("", false, "", ""));
+        assertEquals(List.of(stone, oak, darkOak, birch), all("price", false, "", ""));
+        assertEquals(List.of(birch, darkOak, oak, stone), all("name", false, "", ""));
+    }
+
+    @Test
+    void addingTheSameItemTwiceIsIgnored() {
+        assertFalse(view.add(oak));
+        assertEquals(4, view.size());
+    }
+
+    @Test
+    void sortRegisteredLaterIndexesExistingItems() {
+        view.addSort("length", Comparator.comparingInt(entry -> entry.name.length()));
+
+        assertEquals(List.of(stone, oak, birch, darkOak), all("length", false, "", ""));
+    }
+
+    @Test
+    void removeTakesTheItemOutOfSortsAndSearch() {
+        assertTrue(view.remove(oak));
+        assertFalse(view.remove(oak));
+
+        assertEquals(3, view.size());
+        assertEquals(List.of(stone, darkOak, birch), all("price", false, "", ""));
+        assertEquals(List.of(darkOak), all("", false, "", "oak"));
+    }
+
+    @Test
+    void updateReindexesTheChangedItem() {
+        view.update(birch, entry -> entry.price = 2);
+        view.update(stone, entry -> entry.name = "Cobblestone");
+
+        assertEquals(List.of(stone, birch, oak, darkOak), all("price", false, "", ""));
+        assertEquals(List.of(birch, stone, darkOak, oak), all("name", false, "", ""));
+        assertEquals(List.of(stone), all("", false, "", "cobble"));
+        assertEquals(List.of(), all("", false, "", "stone"));
+    }
+
+    @Test
+    void updateOfAnUnknownItemOnlyAppliesTheChange() {
+        Entry gravel = new Entry("Gravel", 3);
+        view.update(gravel, entry -> entry.price = 4);
+
+        assertEquals(4, gravel.price);
+        assertEquals(4, view.size());
+    }
+
+    @Test
+    void searchMatchesPrefixesOfTheWholeTextAndEveryWord() {
+        assertEquals(List.of(oak, darkOak), all("", false, "", "oak"));
+        assertEquals(List.of(oak, birch, darkOak), all("", false, "", "LOG"));
+        assertEquals(List.of(darkOak), all("", false, "", "dark oak"));
+        assertEquals(List.of(stone), all("", false, "", " st "));
+        assertEquals(List.of(), all("", false, "", "diamond"));
+    }
+
+    @Test
+    void searchAndFilterCombine() {
+        assertEquals(List.of(oak, darkOak), all("", false, "cheap", "log"));
+        assertEquals(List.of(stone, oak, darkOak), all("price", false, "CHEAP", ""));
+    }
+
+    @Test
+    void descendingReversesTheSortIncludingTies() {
+        assertEquals(List.of(birch, darkOak, oak, stone), all("price", true, "", ""));
+        assertEquals(List.of(stone, darkOak, birch, oak), all("", true, "", ""));
+        assertEquals(List.of(darkOak, oak), all("price", true, "cheap", "log"));
+    }
+
+    @Test
+    void unknownSortAndFilterFallBack() {
+        assertEquals(List.of(oak, birch, darkOak, stone), all("missing", false, "missing", null));
+    }
+
+    @Test
+    void rangeIsClampedToTheView() {
+        PagedDataSource<Entry> source = view.view("price", false, "", "");
+
+        assertEquals(List.of(oak, darkOak), source.range(1, 3));
+        assertEquals(List.of(birch), source.range(3, 10));
+        assertEquals(List.of(), source.range(8, 10));
+    }
+
+    @Test
+    void sourceHandedOutEarlierSeesLaterChanges() {
+        PagedDataSource<Entry> source = view.view("price", false, "", "");
+        assertEquals(4, source.size());
+
+        Entry gravel = new Entry("Gravel", 3);
+        view.add(gravel);
+
+        assertEquals(5, source.size());
+        assertEquals(List.of(stone, gravel, oak, darkOak, birch), source.range(0, 5));
+    }
+
+    @Test
+    void cachedViewsFollowEveryChange() {
+        PagedDataSource<Entry> cheapLogs = view.view("price", true, "cheap", "log");
+        PagedDataSource<Entry> byName = view.view("name", false, "", "");
+        assertEquals(List.of(darkOak, oak), cheapLogs.range(0, 10));
+        assertEquals(List.of(birch, darkOak, oak, stone), byName.range(0, 10));
+
+        Entry spruce = new Entry("Spruce Log", 7);
+        view.add(spruce);
+        view.remove(darkOak);
+        view.update(birch, entry -> entry.price = 6);
+        view.update(oak, entry -> entry.name = "Acacia Log");
+
+        assertEquals(List.of(spruce, birch, oak), cheapLogs.range(0, 10));
+        assertEquals(List.of(oak, birch, spruce, stone), byName.range(0, 10));
+        assertEquals(3, cheapLogs.size());
+    }
+
+    @Test
+    void rangeIsNotChangedByLaterUpdates() {
+        PagedDataSource<Entry> source = view.view("price", false, "", "");
+        List<Entry> range = source.range(0, 4);
+
+        view.remove(stone);
+
+        assertEquals(List.of(stone, oak, darkOak, birch), range);
+        assertEquals(List.of(oak, darkOak, birch), source.range(0, 4));
+    }
+
+    private List<Entry> all(String sort, boolean descending, String filter, String search) {
+        PagedDataSource<Entry> source = view.view(sort, descending, filter, search);
+        return source.range(0, source.size());
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.deadshotmdf.spigot_abstract_GUIS.General.GUI;
+
+import com.deadshotmdf.spigot_abstract_GUIS.General.Buttons.GuiElement;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.AbstractGUIManager;
+import com.deadshotmdf.spigot_abstract_GUIS.General.Managers.GuiManager;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerPlayerWindowedGUITest {
+
+    private static final int SIZE = 18;
+
+    private GuiElement back, next, filler;
+    private Catalog template;
+
+    @BeforeEach
+    void setUp() {
+        back = new Element("back");
+        next = new Element("next");
+        filler = new Element("filler");
+
+        Map<Integer, GuiElement> fixed = new LinkedHashMap<>();
+        fixed.put(0, back);
+        fixed.put(8, next);
+
+        for (int slot = 9; slot < SIZE; slot++)
+            fixed.put(slot, filler);
+
+        Map<Integer, Map<Integer, GuiElement>> pages = new HashMap<>();
+        pages.put(0, fixed);
+
+        template = new Catalog(pages, null, items(20));
+        template.setTemplate("catalog", 1);
+        template.freeze();
+    }
+
+    @Test
+    void instanceKeepsTheTemplatesFixedButtons() {
+        Catalog instance = (Catalog) template.createInstance(UUID.randomUUID(), new HashMap<>());
+        instance.loadWindow();
+
+        GuiElement[] first = instance.pageTable.getPage(0);
+        assertSame(back, first[0]);
+        assertSame(next, first[8]);
+
+        for (int slot = 9; slot < SIZE; slot++)
+            assertSame(filler, first[slot]);
+
+        //7 free slots per page
+        assertEquals(3, instance.getPageCount());
+
+        for (int slot = 1; slot < 8; slot++)
+            assertEquals("item " + (slot - 1), ((Element) first[slot]).name());
+
+        GuiElement[] second = instance.pageTable.getPage(1);
+        assertSame(back, second[0]);
+        assertEquals("item 7", ((Element) second[1]).name());
+    }
+
+    @Test
+    void lastPageOnlyFillsWhatsLeft() {
+        Catalog instance = (Catalog) template.createInstance(UUID.randomUUID(), new HashMap<>());
+        instance.loadWindow();
+        instance.prefetch = 2;
+        instance.loadWindow();
+
+        GuiElement[] last = instance.pageTable.getPage(2);
+        assertSame(next, last[8]);
+        assertEquals("item 19", ((Element) last[6]).name());
+        assertNull(last[7]);
+    }
+
+    @Test
+    void templateTableIsLeftAlone() {
+        template.createInstance(UUID.randomUUID(), new HashMap<>());
+
+        assertSame(back, template.pageTable.getPage(0)[0]);
+        assertSame(next, template.pageTable.getPage(0)[8]);
+        assertEquals(1, template.pageTable.getPageCount());
+    }
+
+    private static List<String> items(int count) {
+        List<String> items = new ArrayList<>();
+
+        for (int i = 0; i < count; i++)
+            items.add("item " + i);
+
+        return items;
+    }
+
+    //Follows the PerPlayerGUI convention of creating instances from a copy of the template's table
+    private static final class Catalog extends PerPlayerWindowedGUI<AbstractGUIManager, String> {
+
+        private final List<String> items;
+
+        private Catalog(Map<Integer, Map<Integer, GuiElement>> pageElements, UUID viewer, List<String> items) {
+            super(null, null, "Catalog", SIZE, pageElements, viewer, new HashMap<>());
+            this.items = items;
+        }
+
+        @Override
+        protected PagedDataSource<String> getDataSource() {
+            return PagedDataSource.of(items);
+        }
+
+        @Override
+        protected GuiElement createGuiElement(String item) {
+            return new Element(item);
+        }
+
+        @Override
+        protected GUI createNewInstance(UUID player, Map<String, Object> args) {
+            return new Catalog(pageTable.copy().asMap(), player, items);
+        }
+    }
+
+    private record Element(String name) implements GuiElement {
+
+        @Override
+        public ItemStack getItemStackClone() {
+            return null;
+        }
+
+        @Override
+        public ItemStack getItemStackClone(String[] placeholder, String... replace) {
+            return null;
+        }
+
+        @Override
+        public ItemStack getItemStackClone(ItemStack clone, String[] placeholder, String... replace) {
+            return null;
+        }
+
+        @Override
+        public ItemStack getItemStackMarkedAndReplaced(NamespacedKey key, PersistentDataType type, Object value, String[] placeholders, String... replacements) {
+            return null;
+        }
+
+        @Override
+        public boolean canClick(HumanEntity player) {
+            return true;
+        }
+    }
+
+}